@@ -22,6 +22,7 @@
 
 package org.vaadin.tltv.gantt;
 
+import java.io.Serializable;
 import java.text.DateFormatSymbols;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -31,46 +32,64 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TimeZone;
-import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.apache.commons.lang3.mutable.MutableInt;
+import org.vaadin.tltv.gantt.data.GanttDataProvider;
+import org.vaadin.tltv.gantt.data.GanttQuery;
 import org.vaadin.tltv.gantt.element.StepElement;
 import org.vaadin.tltv.gantt.event.GanttClickEvent;
 import org.vaadin.tltv.gantt.event.GanttDataChangeEvent;
 import org.vaadin.tltv.gantt.event.StepClickEvent;
 import org.vaadin.tltv.gantt.event.StepMoveEvent;
 import org.vaadin.tltv.gantt.event.StepResizeEvent;
+import org.vaadin.tltv.gantt.event.SubStepConflictEvent;
+import org.vaadin.tltv.gantt.event.VisibleRangeChangeEvent;
 import org.vaadin.tltv.gantt.event.GanttDataChangeEvent.DataEvent;
 import org.vaadin.tltv.gantt.model.GanttStep;
 import org.vaadin.tltv.gantt.model.Resolution;
 import org.vaadin.tltv.gantt.model.Step;
 import org.vaadin.tltv.gantt.model.SubStep;
 import org.vaadin.tltv.gantt.util.GanttUtil;
+import org.vaadin.tltv.gantt.util.UidGenerator;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.contextmenu.ContextMenu;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.treegrid.TreeGrid;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
 import com.vaadin.flow.data.provider.hierarchy.TreeData;
 import com.vaadin.flow.data.provider.hierarchy.TreeDataProvider;
 import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.function.SerializableToIntFunction;
 import com.vaadin.flow.shared.Registration;
 
 import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.impl.JreJsonFactory;
 
 import static java.util.Optional.ofNullable;
@@ -94,12 +113,56 @@ import static java.util.Optional.ofNullable;
 @CssImport(value = "gantt-grid.css", themeFor = "vaadin-grid")
 public class Gantt extends Component implements HasSize {
 
+	/** Class name of the sub step elements that overlap another sub step of the same owner. */
+	public static final String SUB_STEP_CONFLICT_STYLE_NAME = "conflict";
+
+	private static final int DEFAULT_VISIBLE_ROW_COUNT = 50;
+	private static final int DEFAULT_OVERSCAN = 20;
+
 	private final JreJsonFactory jsonFactory = new JreJsonFactory();
 
 	private Grid<Step> captionGrid;
 	private Registration captionGridDataChangeListener;
 	private Registration captionGridColumnResizeListener;
 	private final Set<ComponentEventListener<StepMoveEvent>> moveListeners = new HashSet<>();
+
+	/** All step and sub-step elements by their UID. */
+	private final Map<String, StepElement> stepElementsByUid = new HashMap<>();
+	/** Sub-step elements by their owner step UID, in the order of the owner's children. */
+	private final Map<String, Map<String, StepElement>> subStepElementsByOwnerUid = new HashMap<>();
+	/** Loaded child steps by their parent step UID for a lazy caption TreeGrid. */
+	private final Map<String, List<Step>> loadedCaptionTreeChildren = new HashMap<>();
+	/** True while the caption TreeGrid is expanded or collapsed by this Gantt. */
+	private boolean captionTreeExpansionInProgress;
+	/** Row order of the step elements excluding sub-steps. */
+	private final StepRowIndex rowIndex = new StepRowIndex();
+	/** Steps and sub-steps by their dates. */
+	private final StepIntervalIndex intervalIndex = new StepIntervalIndex();
+	/** Overlapping sub-steps, null when conflict detection is disabled. */
+	private SubStepConflictIndex subStepConflicts;
+	private boolean subStepConflictFlushPending;
+
+	private boolean compactStepDates;
+	private boolean horizontalScrollbarRefreshPending;
+	private boolean coalesceDataChangeEvents;
+	private final List<PendingDataChange> pendingDataChanges = new ArrayList<>();
+	private UidGenerator uidGenerator = UidGenerator.randomBase62();
+	private ContextMenu stepContextMenu;
+	private final List<BiConsumer<ContextMenu, String>> stepContextMenuBuilders = new ArrayList<>();
+	private boolean virtualized;
+	private int overscan = DEFAULT_OVERSCAN;
+	private int visibleFirstRow;
+	private int visibleLastRow = DEFAULT_VISIBLE_ROW_COUNT - 1;
+	/** Step elements currently rendered in the client in virtualized mode. */
+	private Set<StepElement> renderedStepElements = new HashSet<>();
+	private boolean visibleRowsUpdatePending;
+	private Registration visibleRangeAttachListener;
+	private LocalDateTime visibleStart;
+	private LocalDateTime visibleEnd;
+
+	/** External data provider or null when steps are kept in memory. */
+	private GanttDataProvider dataProvider;
+	private final GanttDataProvider inMemoryDataProvider = new InMemoryDataProvider();
 	
 	/**
 	 * Default contructor with default settings. Sets locale to match
@@ -107,13 +170,28 @@ public class Gantt extends Component implements HasSize {
 	 */
 	public Gantt() {
 		setupDefaults();
+		addAttachListener(event -> registerHorizontalScrollbarSync());
 		addListener(StepMoveEvent.class, event -> {
 			// dates and position are synchronized automatically to server side model
-			event.getAnyStep().setStartDate(event.getStart());
-			event.getAnyStep().setEndDate(event.getEnd());
-			moveStep(indexOf(event.getNewUid()), event.getAnyStep(), true);
+			var anyStep = event.getAnyStep();
+			anyStep.setStartDate(event.getStart());
+			anyStep.setEndDate(event.getEnd());
+			moveStep(indexOf(event.getNewUid()), anyStep, true);
+			if (contains(anyStep.getUid())) {
+				intervalIndex.put(anyStep);
+			}
 			fireMoveListeners(event);
 		});
+		addListener(StepResizeEvent.class, event -> {
+			if (subStepConflicts != null && event.getAnyStep() instanceof SubStep subStep) {
+				updateSubStepConflicts(subStep, event.getStart(), event.getEnd());
+			}
+		});
+		addListener(VisibleRangeChangeEvent.class, event -> {
+			visibleStart = event.getVisibleStart();
+			visibleEnd = event.getVisibleEnd();
+			setVisibleRowRange(event.getFirstRow(), event.getLastRow());
+		});
 	}
 
 	/**
@@ -376,6 +454,305 @@ public class Gantt extends Component implements HasSize {
 	public boolean isMovableStepsBetweenRows() {
 		return getElement().getProperty("movableStepsBetweenRows", true); 
 	}
+
+	/**
+	 * Sets whether step start and end dates are written to the client side in the
+	 * shortest exact form: <code>yyyy-MM-dd</code> for midnight and
+	 * <code>yyyy-MM-ddTHH</code> otherwise, instead of
+	 * <code>yyyy-MM-ddTHH:mm:ss</code>. Step dates are always truncated to hours,
+	 * so this works with all resolutions. Default is <code>false</code>.
+	 * 
+	 * @param enabled <code>true</code> to enable compact step dates
+	 */
+	public void setCompactStepDates(boolean enabled) {
+		if (compactStepDates != enabled) {
+			compactStepDates = enabled;
+			getFlatStepElements().forEach(stepElement -> stepElement.setCompactDates(enabled));
+		}
+	}
+
+	/**
+	 * Returns true if step start and end dates are written in compact form. See
+	 * {@link #setCompactStepDates(boolean)}.
+	 */
+	public boolean isCompactStepDates() {
+		return compactStepDates;
+	}
+
+	/**
+	 * Adds dynamic context menu shared by all steps and substeps. Builder is
+	 * responsible rebuilding the context menu items for the given UID of the
+	 * target step before the menu opens. Single {@link ContextMenu} instance and
+	 * DOM listener serve all steps, unlike with
+	 * {@link StepElement#addContextMenu(BiConsumer)}. Steps with their own context
+	 * menu builders open only their own menu.
+	 * 
+	 * @param builder Context menu builder with the shared {@link ContextMenu}
+	 *                instance to build and target step's UID.
+	 * @return Registration to remove the builder
+	 */
+	public Registration addStepContextMenu(BiConsumer<ContextMenu, String> builder) {
+		if (stepContextMenu == null) {
+			stepContextMenu = new StepContextMenu();
+			stepContextMenu.setTarget(this);
+			addAttachListener(event -> registerStepContextMenuDetail());
+			if (isAttached()) {
+				registerStepContextMenuDetail();
+			}
+		}
+		stepContextMenuBuilders.add(builder);
+		return () -> stepContextMenuBuilders.remove(builder);
+	}
+
+	private void registerStepContextMenuDetail() {
+		// vaadin-context-menu passes this detail to the before-open event of the menu
+		getElement().executeJs("""
+				this.getContextMenuBeforeOpenDetail = event => {
+					const step = event.composedPath().find(node => node.localName === 'gantt-step-element');
+					return step ? { uid: step.uid } : {};
+				};""");
+	}
+
+	/**
+	 * Enables or disables virtualized rendering of the step rows. In virtualized
+	 * mode only the step elements in the visible row range, plus the overscan
+	 * rows before and after it, are rendered in the client. Other step elements
+	 * stay in the component tree as invisible elements, so their attributes, sub
+	 * steps and child components are not sent to the client until they are
+	 * scrolled into view. Invisible step elements keep their position among the
+	 * step elements in the client, so a shown row is laid out at its row index.
+	 * Client reports the visible range with {@link VisibleRangeChangeEvent},
+	 * calculated from the scroll position and the height of a shown row, so all
+	 * rows are expected to have the same height. Default is <code>false</code>.
+	 * 
+	 * @param virtualized <code>true</code> to enable virtualized rendering
+	 */
+	public void setVirtualized(boolean virtualized) {
+		if (this.virtualized == virtualized) {
+			return;
+		}
+		this.virtualized = virtualized;
+		if (virtualized) {
+			visibleRangeAttachListener = addAttachListener(event -> registerVisibleRangeReporting());
+			if (isAttached()) {
+				registerVisibleRangeReporting();
+			}
+			getStepElements().forEach(stepElement -> stepElement.setVisible(false));
+			renderedStepElements.clear();
+			scheduleVisibleRowsUpdate();
+		} else {
+			visibleRangeAttachListener.remove();
+			visibleRangeAttachListener = null;
+			getElement().executeJs("""
+					if (this._ganttVisibleRangeListener) {
+						this._container.removeEventListener('scroll', this._ganttVisibleRangeListener);
+						this._ganttVisibleRangeListener = null;
+					}
+					""");
+			getStepElements().forEach(stepElement -> stepElement.setVisible(true));
+			renderedStepElements.clear();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if virtualized rendering of the step rows is
+	 * enabled. See {@link #setVirtualized(boolean)}.
+	 */
+	public boolean isVirtualized() {
+		return virtualized;
+	}
+
+	/**
+	 * Sets number of rows rendered before and after the visible row range in
+	 * virtualized mode. Default is 20.
+	 * 
+	 * @param overscan Number of rows, not negative
+	 */
+	public void setOverscan(int overscan) {
+		if (overscan < 0) {
+			throw new IllegalArgumentException("Overscan can't be negative");
+		}
+		this.overscan = overscan;
+		scheduleVisibleRowsUpdate();
+	}
+
+	/**
+	 * Returns number of rows rendered before and after the visible row range in
+	 * virtualized mode.
+	 */
+	public int getOverscan() {
+		return overscan;
+	}
+
+	/**
+	 * Sets visible row range. This is updated automatically by the client in
+	 * virtualized mode. Rendered step elements are updated immediately.
+	 * 
+	 * @param firstRow Zero based index of the first visible row
+	 * @param lastRow  Zero based index of the last visible row, inclusive
+	 */
+	public void setVisibleRowRange(int firstRow, int lastRow) {
+		visibleFirstRow = Math.max(0, firstRow);
+		visibleLastRow = Math.max(visibleFirstRow, lastRow);
+		loadRows();
+		updateVisibleRows();
+	}
+
+	/**
+	 * Returns zero based index of the first visible row as last reported by the
+	 * client in virtualized mode.
+	 */
+	public int getVisibleFirstRow() {
+		return visibleFirstRow;
+	}
+
+	/**
+	 * Returns zero based index of the last visible row as last reported by the
+	 * client in virtualized mode.
+	 */
+	public int getVisibleLastRow() {
+		return visibleLastRow;
+	}
+
+	/**
+	 * Returns start of the visible part of the timeline as last reported by the
+	 * client in virtualized mode, or the timeline start.
+	 */
+	public LocalDateTime getVisibleStart() {
+		return visibleStart != null ? visibleStart : getStartDateTime();
+	}
+
+	/**
+	 * Returns end of the visible part of the timeline as last reported by the
+	 * client in virtualized mode, or the timeline end.
+	 */
+	public LocalDateTime getVisibleEnd() {
+		return visibleEnd != null ? visibleEnd : getEndDateTime();
+	}
+
+	/**
+	 * Sets backend for the rows. Existing steps are removed and the rows are
+	 * fetched from the given data provider when they are needed: all rows
+	 * normally, and in virtualized mode (see {@link #setVirtualized(boolean)})
+	 * rows until the end of the visible row range with the overscan. Caption grid
+	 * built with {@link #buildCaptionGrid(String)} fetches its rows from the same
+	 * data provider. Call {@link #refreshAll()} when data in the backend has
+	 * changed. Setting null removes the data provider and steps are kept in
+	 * memory again with {@link #addStep(Step)} and other methods.
+	 * 
+	 * @param dataProvider {@link GanttDataProvider} or null
+	 */
+	public void setDataProvider(GanttDataProvider dataProvider) {
+		getStepElements().toList().forEach(this::removeStepElement);
+		this.dataProvider = dataProvider;
+		refreshAll();
+	}
+
+	/**
+	 * Returns data provider of the rows. When no data provider is set with
+	 * {@link #setDataProvider(GanttDataProvider)}, returns data provider that is
+	 * backed by the steps in this Gantt.
+	 * 
+	 * @return {@link GanttDataProvider}, not null
+	 */
+	public GanttDataProvider getDataProvider() {
+		return dataProvider != null ? dataProvider : inMemoryDataProvider;
+	}
+
+	/**
+	 * Reloads all rows from the data provider set with
+	 * {@link #setDataProvider(GanttDataProvider)} and refreshes the caption grid.
+	 * Without a data provider writes all attributes of all step elements again,
+	 * see {@link StepElement#refresh(boolean)}.
+	 */
+	public void refreshAll() {
+		if (dataProvider != null) {
+			getStepElements().toList().forEach(this::removeStepElement);
+			loadRows();
+		} else {
+			getFlatStepElements().forEach(stepElement -> stepElement.refresh(true));
+		}
+		if (captionGrid != null && getCaptionTreeGrid() == null) {
+			captionGrid.getDataProvider().refreshAll();
+		}
+	}
+
+	/**
+	 * Appends rows fetched from the data provider until all rows, or in
+	 * virtualized mode the visible rows and the overscan, are loaded.
+	 */
+	private void loadRows() {
+		if (dataProvider == null) {
+			return;
+		}
+		int size = dataProvider.size(createQuery(0, Integer.MAX_VALUE));
+		int loadedRowCount = rowIndex.size();
+		int targetRowCount = virtualized ? Math.min(size, visibleLastRow + overscan + 1) : size;
+		if (loadedRowCount < targetRowCount) {
+			appendSteps(dataProvider.fetch(createQuery(loadedRowCount, targetRowCount - loadedRowCount)).toList());
+		}
+	}
+
+	private GanttQuery createQuery(int rowOffset, int rowLimit) {
+		return new GanttQuery(rowOffset, rowLimit, getVisibleStart(), getVisibleEnd());
+	}
+
+	private void scheduleVisibleRowsUpdate() {
+		if (!virtualized || visibleRowsUpdatePending) {
+			return;
+		}
+		visibleRowsUpdatePending = true;
+		getElement().getNode()
+				.runWhenAttached(ui -> ui.beforeClientResponse(this, context -> updateVisibleRows()));
+	}
+
+	/**
+	 * Shows step elements in the visible row range with the overscan and hides
+	 * previously shown step elements outside of it.
+	 */
+	private void updateVisibleRows() {
+		visibleRowsUpdatePending = false;
+		if (!virtualized) {
+			return;
+		}
+		int from = Math.max(0, visibleFirstRow - overscan);
+		int to = Math.min(rowIndex.size(), visibleLastRow + overscan + 1);
+		Set<StepElement> rendered = new HashSet<>();
+		for (int index = from; index < to; index++) {
+			var stepElement = rowIndex.get(index);
+			rendered.add(stepElement);
+			if (!renderedStepElements.remove(stepElement)) {
+				stepElement.setVisible(true);
+			}
+		}
+		renderedStepElements.forEach(stepElement -> stepElement.setVisible(false));
+		renderedStepElements = rendered;
+	}
+
+	private void registerVisibleRangeReporting() {
+		getElement().executeJs("""
+				const self = this;
+				if (self._ganttVisibleRangeListener) {
+					return;
+				}
+				self._ganttVisibleRangeListener = () => {
+					const container = self._container;
+					const step = self.querySelector(':scope > gantt-step-element:not([hidden])');
+					const rowHeight = (step && step.offsetHeight) || 30;
+					const width = Math.max(1, container.scrollWidth);
+					self.dispatchEvent(new CustomEvent('ganttVisibleRangeChange', { detail: {
+						first: Math.floor(container.scrollTop / rowHeight),
+						last: Math.ceil((container.scrollTop + container.clientHeight) / rowHeight),
+						left: container.scrollLeft / width,
+						right: (container.scrollLeft + container.clientWidth) / width
+					}}));
+				};
+				this.updateComplete.then(() => {
+					self._container.addEventListener('scroll', self._ganttVisibleRangeListener, { passive: true });
+					self._ganttVisibleRangeListener();
+				});
+				""");
+	}
 	
 	/**
 	 * Add new step components based on the given collection of step descriptors.
@@ -412,10 +789,202 @@ public class Gantt extends Component implements HasSize {
 			return;
 		}
 		var list = steps.toList();
-		steps.forEach(this::appendStep);
-		fireDataChangeEvent(DataEvent.STEP_ADD, list.stream());
+		if (list.isEmpty()) {
+			return;
+		}
+		appendSteps(list);
+		fireDataChangeEvent(DataEvent.STEP_ADD, list);
 	}
 	
+	/**
+	 * Sets steps of this Gantt to the given steps in the given order. Given steps
+	 * are matched with the existing steps by UID, or by
+	 * {@link GanttStep#getIdentifier()} when the UID is not set. Matched existing
+	 * step components are kept with their sub steps, context menus, tooltips and
+	 * child components, and only changed attributes are updated to them. Only the
+	 * minimal set of rows is moved based on the longest run of steps that keep
+	 * their relative order. Unmatched existing steps are removed and new step
+	 * components are inserted for the unmatched given steps.
+	 * <p>
+	 * Fires at most one {@link GanttDataChangeEvent} for each of removed, added
+	 * and moved steps.
+	 * 
+	 * @param steps a collection of step descriptor objects, not null
+	 * @throws IllegalArgumentException if a step is given more than once or its
+	 *                                  UID belongs to an existing sub step. Gantt
+	 *                                  is not changed.
+	 */
+	public void setSteps(Collection<Step> steps) {
+		Objects.requireNonNull(steps, "Setting null steps is not allowed");
+		// match given steps with existing step elements and validate before changes
+		var matchedElements = new StepElement[steps.size()];
+		var keptElements = new HashSet<StepElement>();
+		var givenUids = new HashSet<String>();
+		var addedSteps = new ArrayList<Step>();
+		Map<Long, StepElement> elementsByIdentifier = null;
+		int position = 0;
+		for (Step step : steps) {
+			StepElement stepElement = null;
+			if (step.getUid() != null && !step.getUid().isEmpty()) {
+				stepElement = stepElementsByUid.get(step.getUid());
+				if (stepElement != null && stepElement.getModel().isSubstep()) {
+					throw new IllegalArgumentException(
+							"Step UID " + step.getUid() + " belongs to an existing sub step");
+				}
+				if (!givenUids.add(step.getUid())) {
+					throw new IllegalArgumentException("Step with UID " + step.getUid() + " is set more than once");
+				}
+			} else if (step.getIdentifier() != null) {
+				if (elementsByIdentifier == null) {
+					elementsByIdentifier = getStepElements()
+							.filter(element -> element.getModel().getIdentifier() != null)
+							.collect(Collectors.toMap(element -> element.getModel().getIdentifier(),
+									element -> element, (first, second) -> first));
+				}
+				stepElement = elementsByIdentifier.get(step.getIdentifier());
+			}
+			if (stepElement != null) {
+				if (!keptElements.add(stepElement)) {
+					throw new IllegalArgumentException("Step with UID " + stepElement.getUid() + " is set more than once");
+				}
+				matchedElements[position] = stepElement;
+			} else {
+				addedSteps.add(step);
+			}
+			position++;
+		}
+		position = 0;
+		for (Step step : steps) {
+			var stepElement = matchedElements[position++];
+			if (stepElement != null) {
+				step.setUid(stepElement.getUid());
+				updateStepElementModel(stepElement, step);
+			}
+		}
+		ensureUIDs(addedSteps);
+
+		// remove unmatched and memorize old order of the kept ones
+		var removedSteps = new ArrayList<Step>();
+		var oldPositions = new HashMap<StepElement, Integer>();
+		for (StepElement stepElement : getStepElements().toList()) {
+			if (keptElements.contains(stepElement)) {
+				oldPositions.put(stepElement, oldPositions.size());
+			} else {
+				removedSteps.add((Step) stepElement.getModel());
+				removeStepElement(stepElement);
+			}
+		}
+
+		// kept steps in the longest increasing run of old positions stay in place
+		var targetElements = new ArrayList<StepElement>(steps.size());
+		var keptOldPositions = new int[keptElements.size()];
+		int keptCount = 0;
+		var addedIterator = addedSteps.iterator();
+		for (StepElement stepElement : matchedElements) {
+			if (stepElement != null) {
+				keptOldPositions[keptCount++] = oldPositions.get(stepElement);
+				targetElements.add(stepElement);
+			} else {
+				targetElements.add(createStepElement(addedIterator.next()));
+			}
+		}
+		boolean[] staying = longestIncreasingSubsequence(keptOldPositions);
+		var stayingElements = new HashSet<StepElement>();
+		var movedSteps = new ArrayList<Step>();
+		keptCount = 0;
+		for (StepElement stepElement : matchedElements) {
+			if (stepElement != null) {
+				if (staying[keptCount++]) {
+					stayingElements.add(stepElement);
+				} else {
+					movedSteps.add((Step) stepElement.getModel());
+					detachStepElement(stepElement);
+				}
+			}
+		}
+
+		// insert moved and new step elements between the staying ones in runs
+		var run = new ArrayList<StepElement>();
+		int runStart = 0;
+		for (int index = 0; index < targetElements.size(); index++) {
+			var stepElement = targetElements.get(index);
+			if (stayingElements.contains(stepElement)) {
+				if (!run.isEmpty()) {
+					insertStepElements(runStart, run);
+					run = new ArrayList<>();
+				}
+				runStart = index + 1;
+			} else {
+				run.add(stepElement);
+			}
+		}
+		if (!run.isEmpty()) {
+			insertStepElements(runStart, run);
+		}
+
+		if (!removedSteps.isEmpty()) {
+			fireDataChangeEvent(DataEvent.STEP_REMOVE, removedSteps);
+		}
+		if (!addedSteps.isEmpty()) {
+			fireDataChangeEvent(DataEvent.STEP_ADD, addedSteps);
+		}
+		if (!movedSteps.isEmpty()) {
+			fireDataChangeEvent(DataEvent.STEP_MOVE, movedSteps);
+		}
+	}
+
+	/**
+	 * Sets given step as a new model of the matching existing step element and
+	 * refreshes the element if synchronized attributes have changed.
+	 */
+	private void updateStepElementModel(StepElement stepElement, Step step) {
+		var oldModel = stepElement.getModel();
+		if (oldModel != step) {
+			getSubStepElements(stepElement.getUid())
+					.forEach(subStepElement -> ((SubStep) subStepElement.getModel()).setOwner(step));
+			stepElement.setModel(step);
+		}
+		boolean captionChanged = !Objects.equals(stepElement.getCaption(), step.getCaption());
+		refreshStepElement(stepElement);
+		if (captionChanged) {
+			refreshCaptionGridItem(stepElement);
+		}
+	}
+
+	/**
+	 * Returns flags for the values that belong to one of the longest strictly
+	 * increasing subsequences of the given values.
+	 */
+	private static boolean[] longestIncreasingSubsequence(int[] values) {
+		// tails[length - 1] is an index of the smallest tail value of a subsequence
+		// of that length
+		int[] tails = new int[values.length];
+		int[] previous = new int[values.length];
+		int length = 0;
+		for (int index = 0; index < values.length; index++) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (values[tails[middle]] < values[index]) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			previous[index] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = index;
+			if (low == length) {
+				length++;
+			}
+		}
+		boolean[] result = new boolean[values.length];
+		for (int index = length > 0 ? tails[length - 1] : -1; index >= 0; index = previous[index]) {
+			result[index] = true;
+		}
+		return result;
+	}
+
 	/**
 	 * Add new step component based on the given step descriptor. New component is
 	 * appended at the end.
@@ -424,7 +993,7 @@ public class Gantt extends Component implements HasSize {
 	 */
 	public void addStep(Step step) {
 		appendStep(step);
-		fireDataChangeEvent(DataEvent.STEP_ADD, Stream.of(step));
+		fireDataChangeEvent(DataEvent.STEP_ADD, List.of(step));
 	}
 
 	/**
@@ -434,15 +1003,18 @@ public class Gantt extends Component implements HasSize {
 	 * @param subStep a sub step descriptor object for the new component
 	 */
 	public void addSubStep(SubStep subStep) {
-		StepElement ownerStepElement = getStepElements().collect(Collectors.toList())
-				.get(indexOf(subStep.getOwner().getUid()));
-		ownerStepElement.getElement().appendChild(new StepElement(ensureUID(subStep)).getElement());
+		addSubStepElement(createStepElement(ensureUID(subStep)));
 	}
 
 	private void addSubStepElement(StepElement subStepElement) {
-		StepElement ownerStepElement = getStepElements().collect(Collectors.toList())
-				.get(indexOf(((SubStep) subStepElement.getModel()).getOwner().getUid()));
+		StepElement ownerStepElement = stepElementsByUid
+				.get(((SubStep) subStepElement.getModel()).getOwner().getUid());
 		ownerStepElement.getElement().appendChild(subStepElement.getElement());
+		indexStepElement(subStepElement);
+		if (subStepConflicts != null) {
+			var subStep = (SubStep) subStepElement.getModel();
+			updateSubStepConflicts(subStep, subStep.getStartDate(), subStep.getEndDate());
+		}
 	}
 	
 	/**
@@ -462,9 +1034,9 @@ public class Gantt extends Component implements HasSize {
         if (contains(ensureUID(step))) {
             moveStep(index, step);
         } else {
-        	getElement().insertChild(index, new StepElement(ensureUID(step)).getElement());
+        	insertStepElement(index, createStepElement(ensureUID(step)));
 			if (fireDataEvent) {
-				fireDataChangeEvent(DataEvent.STEP_ADD, Stream.of(step));
+				fireDataChangeEvent(DataEvent.STEP_ADD, List.of(step));
 			}
         }
     }
@@ -491,10 +1063,9 @@ public class Gantt extends Component implements HasSize {
 	
 	/**
 	 * Move given existing step to the given index. Index is based on the state at
-	 * the moment when method is called. Moved step component is removed and
-	 * discarded and new step component takes the new position. Existing substep
-	 * components are moved to the new step component. Context menus and tooltips
-	 * are recreated for the new step component.
+	 * the moment when method is called. Moved step component is moved as is to
+	 * the new position with its substep components, context menus, tooltips and
+	 * child components.
 	 * 
 	 * @param toIndex Target zero based index where to move the step
 	 * @param step    step descriptor of the moved step
@@ -507,13 +1078,13 @@ public class Gantt extends Component implements HasSize {
         if (!contains(step)) {
             return;
         }
-        String targetStepUid = getStepElements().collect(Collectors.toList()).get(toIndex).getUid();
+        String targetStepUid = rowIndex.get(toIndex).getUid();
         int fromIndex = indexOf(step);
         Step moveStep = step;
         if (!targetStepUid.equals(moveStep.getUid())) {
 
 			if (getCaptionTreeGrid() != null) {
-				List<Step> flatSubTree = getFlatSubTreeRecursively(getCaptionTreeGrid().getTreeData(), step);
+				List<Step> flatSubTree = getCaptionTreeSubTree(getCaptionTreeGrid(), step);
 				if (flatSubTree.contains(getStep(targetStepUid))) {
 					// reset to old position
 					doMoveStep(indexOf(moveStep.getUid()), moveStep.getUid(), moveStep);
@@ -524,7 +1095,7 @@ public class Gantt extends Component implements HasSize {
 
 			doMoveStep(fromIndex, targetStepUid, moveStep);
 			if(fromClient) {
-        		fireDataChangeEvent(DataEvent.STEP_MOVE, Stream.of(step));
+        		fireDataChangeEvent(DataEvent.STEP_MOVE, List.of(step));
 			}
         }
         updateSubStepsByMovedOwner(moveStep.getUid());
@@ -532,38 +1103,26 @@ public class Gantt extends Component implements HasSize {
     
 	private void doMoveStep(int fromIndex, String targetStepUid, Step moveStep) {
 		var toIndex = indexOf(targetStepUid);
-		var subStepEements = getSubStepElements(moveStep.getUid());
-		// memorize context menu builders before removing old element with builders.
-		var contextMenuBuilders = getStepElementOptional(moveStep.getUid()).map(StepElement::getContextMenuBuilders).orElse(List.of());
-		// and also tooltips.
-		var tooltips = getStepElementOptional(moveStep.getUid()).map(StepElement::getTooltips).orElse(List.of());
-		var components = getStepElementOptional(moveStep.getUid()).map(StepElement::getChildren)
-				.orElse(Stream.empty()).toList();
-		getStepElementOptional(moveStep.getUid()).ifPresent(StepElement::removeFromParent);
-		StepElement stepElement = new StepElement(moveStep);
-		subStepEements.forEach(subStepElement -> stepElement.getElement().appendChild(subStepElement.getElement()));
+		var stepElement = getStepElement(moveStep.getUid());
+		// detach and insert the same element so that the client re-renders it in the
+		// new row even when the position is reset to the old one.
+		detachStepElement(stepElement);
 		if(targetStepUid.equals(moveStep.getUid())) {
-			getElement().insertChild(toIndex, stepElement.getElement());
+			insertStepElement(toIndex, stepElement);
 		} else if(fromIndex <= toIndex) {
-			getElement().insertChild(indexOf(targetStepUid) + 1, stepElement.getElement());
+			insertStepElement(indexOf(targetStepUid) + 1, stepElement);
 		} else {
-			getElement().insertChild(indexOf(targetStepUid), stepElement.getElement());
+			insertStepElement(indexOf(targetStepUid), stepElement);
 		}
-		// add context menu builders back in the end.
-		contextMenuBuilders.stream().forEach(stepElement::addContextMenu);
-		// and tooltips.
-		tooltips.forEach(stepElement::addTooltip);
-		stepElement.add(components);
 	}
 
 	/**
 	 * Move given existing substep to the given index. Index is based on the state
-	 * at the moment when method is called. Moved substep component is removed and
-	 * discarded and new substep component takes the new position as a new children
-	 * inside the step component at the new index. {@link SubStep#getOwner()} is
+	 * at the moment when method is called. Moved substep component is moved as is,
+	 * with its context menus, tooltips and child components, to be the last child
+	 * of the step component at the new index. {@link SubStep#getOwner()} is
 	 * changed to the new owner, and step dates are adjusted to include the substep
-	 * inside it. Other substep component are not touched. Context menus and tooltips
-	 * are recreated for the new substep component.
+	 * inside it. Other substep component are not touched.
 	 * 
 	 * @param toIndex Target zero based index where to move the substep
 	 * @param subStep substep descriptor of the moved substep
@@ -572,30 +1131,22 @@ public class Gantt extends Component implements HasSize {
 		if (!contains(subStep)) {
 			return;
 		}
-		String targetStepUid = getStepElements().collect(Collectors.toList()).get(toIndex).getUid();
+		String targetStepUid = rowIndex.get(toIndex).getUid();
 		StepElement stepElement = getStepElement(targetStepUid);
 		Step moveStep = subStep.getOwner();
 		if (!targetStepUid.equals(moveStep.getUid())) {
-			var substepElement = getSubStepElements().filter(item -> item.getUid().equals(subStep.getUid())).findFirst().orElse(null);
-			// memorize context menu builders before removing old element with builders.
-			var contextMenuBuilders = ofNullable(substepElement).map(StepElement::getContextMenuBuilders).orElse(List.of());
-			// and also tooltips.
-			var tooltips = ofNullable(substepElement).map(StepElement::getTooltips).orElse(List.of());
-			var components = ofNullable(substepElement).map(StepElement::getChildren)
-					.orElse(Stream.empty()).toList();
-			getSubStepElements().filter(item -> item.getUid().equals(subStep.getUid())).findFirst()
-					.ifPresent(StepElement::removeFromParent);
+			var substepElement = getStepElement(subStep.getUid());
+			unindexSubStepElement(substepElement);
+			substepElement.getElement().removeFromParent();
 			subStep.setOwner(getStep(targetStepUid));
-			substepElement = new StepElement(subStep);
 			stepElement.getElement().appendChild(substepElement.getElement());
-			// add context menu builders back in the end.
-			contextMenuBuilders.stream().forEach(substepElement::addContextMenu);
-			// and tooltips.
-			tooltips.forEach(substepElement::addTooltip);
-			substepElement.add(components);
+			indexStepElement(substepElement);
 		}
 		subStep.updateOwnerDatesBySubStep();
-		stepElement.refresh();
+		refreshStepElement(stepElement);
+		if (subStepConflicts != null) {
+			updateSubStepConflicts(subStep, subStep.getStartDate(), subStep.getEndDate());
+		}
     }
 
 	/**
@@ -670,11 +1221,11 @@ public class Gantt extends Component implements HasSize {
 	private boolean doRemoveAnyStep(String uid, boolean fireDataEvent) {
 		var removedStepElement = getStepElement(uid);
 		if (removedStepElement != null) {
-			removedStepElement.removeFromParent();
+			removeStepElement(removedStepElement);
 			if (removedStepElement.getModel().isSubstep()) {
 				refresh(((SubStep) removedStepElement.getModel()).getOwner().getUid());
 			} else if(fireDataEvent) {
-				fireDataChangeEvent(DataEvent.STEP_REMOVE, Stream.of((Step) removedStepElement.getModel()));
+				fireDataChangeEvent(DataEvent.STEP_REMOVE, List.of((Step) removedStepElement.getModel()));
 			}
 			return true;
 		}
@@ -682,7 +1233,118 @@ public class Gantt extends Component implements HasSize {
 	}
 
 	private void appendStep(Step step) {
-		getElement().appendChild(new StepElement(ensureUID(step)).getElement());
+		insertStepElement(rowIndex.size(), createStepElement(ensureUID(step)));
+	}
+
+	/**
+	 * Appends step elements for all given steps with a single insert to the
+	 * element tree.
+	 */
+	private void appendSteps(List<Step> steps) {
+		ensureUIDs(steps);
+		insertStepElements(rowIndex.size(), steps.stream().map(this::createStepElement).toList());
+	}
+
+	/**
+	 * Inserts given step element at the given row index and adds it to the
+	 * lookup indexes.
+	 */
+	private void insertStepElement(int index, StepElement stepElement) {
+		if (virtualized) {
+			// shown later if it's in the visible row range
+			stepElement.setVisible(false);
+			renderedStepElements.remove(stepElement);
+			scheduleVisibleRowsUpdate();
+		}
+		getElement().insertChild(index, stepElement.getElement());
+		rowIndex.insert(index, stepElement);
+		indexStepElement(stepElement);
+	}
+
+	/**
+	 * Inserts given step elements in order starting from the given row index
+	 * with a single insert to the element tree, and adds them to the lookup
+	 * indexes.
+	 */
+	private void insertStepElements(int index, List<StepElement> stepElements) {
+		if (virtualized) {
+			stepElements.forEach(stepElement -> stepElement.setVisible(false));
+			renderedStepElements.removeAll(stepElements);
+			scheduleVisibleRowsUpdate();
+		}
+		getElement().insertChild(index, stepElements.stream().map(StepElement::getElement).toList());
+		rowIndex.insertAll(index, stepElements);
+		stepElements.forEach(this::indexStepElement);
+	}
+
+	/**
+	 * Removes given sub step element from the sub step index of its current
+	 * owner.
+	 */
+	private void unindexSubStepElement(StepElement subStepElement) {
+		String ownerUid = ((SubStep) subStepElement.getModel()).getOwner().getUid();
+		var subStepElements = subStepElementsByOwnerUid.get(ownerUid);
+		if (subStepElements != null) {
+			subStepElements.remove(subStepElement.getUid(), subStepElement);
+			if (subStepElements.isEmpty()) {
+				subStepElementsByOwnerUid.remove(ownerUid);
+			}
+		}
+	}
+
+	private StepElement createStepElement(GanttStep step) {
+		return new StepElement(step, compactStepDates);
+	}
+
+	/**
+	 * Detaches given step element from the element tree and the row index
+	 * without removing it from the UID lookup indexes. Used when the step element
+	 * is inserted back to another row.
+	 */
+	private void detachStepElement(StepElement stepElement) {
+		getElement().removeChild(stepElement.getElement());
+		rowIndex.remove(stepElement.getUid());
+	}
+
+	/**
+	 * Adds given attached step or sub step element to the UID lookup indexes.
+	 */
+	private void indexStepElement(StepElement stepElement) {
+		stepElementsByUid.put(stepElement.getUid(), stepElement);
+		intervalIndex.put(stepElement.getModel());
+		if (stepElement.getModel().isSubstep()) {
+			subStepElementsByOwnerUid
+					.computeIfAbsent(((SubStep) stepElement.getModel()).getOwner().getUid(),
+							key -> new LinkedHashMap<>())
+					.put(stepElement.getUid(), stepElement);
+		}
+	}
+
+	/**
+	 * Removes given step or sub step element from the parent and from the lookup
+	 * indexes. Removing a step removes also its sub steps from the indexes.
+	 */
+	private void removeStepElement(StepElement stepElement) {
+		stepElement.removeFromParent();
+		stepElementsByUid.remove(stepElement.getUid(), stepElement);
+		intervalIndex.remove(stepElement.getUid());
+		if (stepElement.getModel().isSubstep()) {
+			unindexSubStepElement(stepElement);
+			removeSubStepConflicts(stepElement.getUid());
+		} else {
+			rowIndex.remove(stepElement.getUid());
+			if (virtualized && renderedStepElements.remove(stepElement)) {
+				scheduleVisibleRowsUpdate();
+			}
+			var subStepElements = subStepElementsByOwnerUid.remove(stepElement.getUid());
+			if (subStepElements != null) {
+				subStepElements.forEach((uid, subStepElement) -> {
+					stepElementsByUid.remove(uid, subStepElement);
+					intervalIndex.remove(uid);
+					removeSubStepConflicts(uid);
+				});
+			}
+		}
 	}
 
 	private void setupByLocale() {
@@ -735,22 +1397,25 @@ public class Gantt extends Component implements HasSize {
 	 * Returns {@link StepElement} wrapped in {@link Optional} by <code>uid</code>. Includes sub-steps.
 	 */
 	public Optional<StepElement> getStepElementOptional(String uid) {
-		return getFlatStepElements().filter(step -> Objects.equals(uid, step.getUid())).findFirst();
+		return ofNullable(stepElementsByUid.get(uid));
 	}
 	
 	/**
-	 * Returns {@link StepElement} stream excluding sub-steps.
+	 * Returns {@link StepElement} stream excluding sub-steps. Stream walks the
+	 * rows lazily in order, so steps must not be added, moved or removed before
+	 * the stream is consumed. Collect the stream first to modify steps while
+	 * iterating.
 	 */
     public Stream<StepElement> getStepElements() {
-		return getChildren().filter(child -> child instanceof StepElement).map(StepElement.class::cast);
+		return StreamSupport.stream(Spliterators.spliterator(rowIndex.iterator(), rowIndex.size(),
+				Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL), false);
 	}
     
 	/**
 	 * Returns {@link Step} stream excluding sub-steps.
 	 */
     public Stream<Step> getSteps() {
-		return getChildren().filter(child -> child instanceof StepElement).map(StepElement.class::cast)
-				.map(StepElement::getModel).map(Step.class::cast);
+		return getStepElements().map(StepElement::getModel).map(Step.class::cast);
 	}
     
 	/**
@@ -773,15 +1438,41 @@ public class Gantt extends Component implements HasSize {
 		return streamBuilder.build();
 	}
     
+	/**
+	 * Returns steps and sub-steps that overlap the given date range, ordered by
+	 * start date. Runs in <code>O(log n + k)</code> time for <code>k</code>
+	 * returned steps. Steps are matched by their dates at the latest
+	 * {@link #refresh(String)}, or when they were added or moved.
+	 * 
+	 * @param start Range start, inclusive
+	 * @param end   Range end, exclusive
+	 * @return A new list of {@link Step} and {@link SubStep} objects
+	 */
+	public List<GanttStep> getStepsInRange(LocalDateTime start, LocalDateTime end) {
+		return intervalIndex.findOverlapping(Objects.requireNonNull(start), Objects.requireNonNull(end));
+	}
+
+	/**
+	 * Returns steps and sub-steps that start at or before the given date time and
+	 * end after it, ordered by start date. See
+	 * {@link #getStepsInRange(LocalDateTime, LocalDateTime)}.
+	 * 
+	 * @param dateTime Target date time
+	 * @return A new list of {@link Step} and {@link SubStep} objects
+	 */
+	public List<GanttStep> getStepsAt(LocalDateTime dateTime) {
+		return intervalIndex.findContaining(Objects.requireNonNull(dateTime));
+	}
+
 	/**
 	 * Returns {@link StepElement} stream for the given step UID.
 	 * @param forStepUid Target step UID
 	 * @return {@link StepElement} {@link Stream}
 	 */
 	public Stream<StepElement> getSubStepElements(String forStepUid) {
-		StepElement stepEl = getStepElement(forStepUid);
-		if (stepEl != null) {
-			return stepEl.getChildren().filter(child -> child instanceof StepElement).map(StepElement.class::cast);
+		var subStepElements = subStepElementsByOwnerUid.get(forStepUid);
+		if (subStepElements != null) {
+			return subStepElements.values().stream();
 		}
 		return Stream.empty();
 	}
@@ -808,8 +1499,7 @@ public class Gantt extends Component implements HasSize {
 	 * @return boolean true if UID exists
 	 */
     public boolean contains(String targetUid) {
-        return getFlatStepElements()
-        		.anyMatch(step -> step.getUid().equals(targetUid));
+        return stepElementsByUid.containsKey(targetUid);
     }
     
 	/**
@@ -820,8 +1510,7 @@ public class Gantt extends Component implements HasSize {
 	 * @return boolean true if UID exists
 	 */
     public boolean contains(GanttStep targetStep) {
-        return getFlatStepElements()
-        		.anyMatch(step -> step.getUid().equals(targetStep.getUid()));
+        return contains(targetStep.getUid());
     }
     
 	/**
@@ -832,7 +1521,8 @@ public class Gantt extends Component implements HasSize {
 	 * @return boolean true if step with the UID exists
 	 */
 	public boolean contains(Step targetStep) {
-		return contains(getStepElements(), targetStep.getUid());
+		var stepElement = stepElementsByUid.get(targetStep.getUid());
+		return stepElement != null && !stepElement.getModel().isSubstep();
     }
 	
 	/**
@@ -842,13 +1532,8 @@ public class Gantt extends Component implements HasSize {
 	 * @return boolean true if sub step with the UID exists
 	 */	
 	public boolean contains(SubStep targetSubStep) {
-        return contains(getSubStepElements(), targetSubStep.getUid());
-    }
-	
-	private boolean contains(Stream<StepElement> stream, String targetUid) {
-        return stream
-        		.filter(child -> child instanceof StepElement).map(StepElement.class::cast)
-        		.anyMatch(step -> step.getUid().equals(targetUid));
+		var stepElement = stepElementsByUid.get(targetSubStep.getUid());
+		return stepElement != null && stepElement.getModel().isSubstep();
     }
     
 	/**
@@ -870,13 +1555,19 @@ public class Gantt extends Component implements HasSize {
 	 */
     public int indexOf(String stepUid) {
     	GanttStep step = getAnyStep(stepUid);
+    	if (step == null) {
+    		return -1;
+    	}
     	if(step.isSubstep()) {
     		step = ((SubStep) step).getOwner();
     	}
-    	List<String> uidList = getStepElements().map(StepElement::getUid).collect(Collectors.toList());
-        return uidList.indexOf(step.getUid());
+        return rowIndex.indexOf(step.getUid());
     }
     
+	private Step getStepAt(int index) {
+		return (Step) rowIndex.get(index).getModel();
+	}
+
 	/**
 	 * Returns {@link SubStep} by the UID or null if it doesn't exist.
 	 * 
@@ -884,8 +1575,8 @@ public class Gantt extends Component implements HasSize {
 	 * @return {@link SubStep} or null
 	 */
     public SubStep getSubStep(String uid) {
-		return getSubStepElements().filter(step -> Objects.equals(uid, step.getUid())).findFirst()
-				.map(StepElement::getModel).map(SubStep.class::cast).orElse(null);
+		var stepElement = stepElementsByUid.get(uid);
+		return stepElement != null && stepElement.getModel().isSubstep() ? (SubStep) stepElement.getModel() : null;
 	}
     
 	/**
@@ -895,16 +1586,16 @@ public class Gantt extends Component implements HasSize {
 	 * @return {@link Step} or null
 	 */	
 	public Step getStep(String uid) {
-		return getStepElements().filter(step -> Objects.equals(uid, step.getUid())).findFirst()
-				.map(StepElement::getModel).map(Step.class::cast).orElse(null);
+		var stepElement = stepElementsByUid.get(uid);
+		return stepElement != null && !stepElement.getModel().isSubstep() ? (Step) stepElement.getModel() : null;
 	}
     
 	/**
 	 * Returns {@link GanttStep} by <code>uid</code>. Including sub-steps.
 	 */
     public GanttStep getAnyStep(String uid) {
-    	return getFlatStepElements().filter(step -> Objects.equals(uid, step.getUid())).findFirst()
-				.map(StepElement::getModel).orElse(null);
+		var stepElement = stepElementsByUid.get(uid);
+		return stepElement != null ? stepElement.getModel() : null;
     }
 
 	/**
@@ -921,7 +1612,7 @@ public class Gantt extends Component implements HasSize {
 		getSubStepElements(stepUid).forEach(substep -> {
 			substep.getModel().setStartDate(substep.getModel().getStartDate().plus(delta));
 			substep.getModel().setEndDate(substep.getModel().getEndDate().plus(delta));
-			substep.refresh();
+			refreshStepElement(substep);
 		});
     }
     
@@ -933,7 +1624,29 @@ public class Gantt extends Component implements HasSize {
 	public void refresh(String uid) {
 		var stepElement = getStepElement(uid);
 		if (stepElement != null) {
-			stepElement.refresh();
+			refreshStepElement(stepElement);
+			refreshCaptionGridItem(stepElement);
+		}
+	}
+
+	/**
+	 * Refreshes given step element and updates its dates to the date range index.
+	 */
+	private void refreshStepElement(StepElement stepElement) {
+		stepElement.refresh();
+		intervalIndex.put(stepElement.getModel());
+		if (subStepConflicts != null && stepElement.getModel() instanceof SubStep subStep) {
+			updateSubStepConflicts(subStep, subStep.getStartDate(), subStep.getEndDate());
+		}
+	}
+
+	/**
+	 * Refreshes the row of the given step element in the caption grid if it
+	 * exists.
+	 */
+	private void refreshCaptionGridItem(StepElement stepElement) {
+		if (captionGrid != null && !stepElement.getModel().isSubstep()) {
+			captionGrid.getDataProvider().refreshItem((Step) stepElement.getModel());
 		}
 	}
     
@@ -945,10 +1658,39 @@ public class Gantt extends Component implements HasSize {
             return null;
         }
         if (step.getUid() == null || step.getUid().isEmpty()) {
-            step.setUid(UUID.randomUUID().toString());
+            step.setUid(uidGenerator.nextUid());
         }
         return step;
     }
+
+	/**
+	 * Ensures that all given steps have UID. Missing UIDs are generated with the
+	 * {@link #getUidGenerator()}.
+	 */
+	protected void ensureUIDs(Collection<? extends GanttStep> steps) {
+		for (GanttStep step : steps) {
+			if (step.getUid() == null || step.getUid().isEmpty()) {
+				step.setUid(uidGenerator.nextUid());
+			}
+		}
+	}
+
+	/**
+	 * Sets the generator for UIDs of the steps added without one. Default is
+	 * {@link UidGenerator#randomBase62()}.
+	 * 
+	 * @param uidGenerator UID generator, not null
+	 */
+	public void setUidGenerator(UidGenerator uidGenerator) {
+		this.uidGenerator = Objects.requireNonNull(uidGenerator);
+	}
+
+	/**
+	 * Returns the generator for UIDs of the steps added without one.
+	 */
+	public UidGenerator getUidGenerator() {
+		return uidGenerator;
+	}
     
     @Override
     public void setWidth(String width) {
@@ -991,6 +1733,18 @@ public class Gantt extends Component implements HasSize {
 	public Registration addDataChangeListener(ComponentEventListener<GanttDataChangeEvent> listener) {
 		return addListener(GanttDataChangeEvent.class, listener);
 	}
+
+	/**
+	 * Adds a listener for sub steps that start or stop overlapping each other.
+	 * Requires {@link #setSubStepConflictDetection(boolean)}.
+	 */
+	public Registration addSubStepConflictListener(ComponentEventListener<SubStepConflictEvent> listener) {
+		return addListener(SubStepConflictEvent.class, listener);
+	}
+
+	public Registration addVisibleRangeChangeListener(ComponentEventListener<VisibleRangeChangeEvent> listener) {
+		return addListener(VisibleRangeChangeEvent.class, listener);
+	}
 	
 	/**
 	 * Builds a new {@link Grid} instance with a single column that renders text
@@ -1014,7 +1768,8 @@ public class Gantt extends Component implements HasSize {
 				refreshForHorizontalScrollbar();
 			}
 		});
-		grid.setItems(query -> getSteps().skip(query.getOffset()).limit(query.getLimit()));
+		grid.setItems(query -> getDataProvider().fetch(createQuery(query.getOffset(), query.getLimit())),
+				query -> getDataProvider().size(createQuery(query.getOffset(), query.getLimit())));
 		captionGridDataChangeListener = addDataChangeListener(event -> {
 			grid.getLazyDataView().refreshAll();
 			refreshForHorizontalScrollbar();
@@ -1034,7 +1789,97 @@ public class Gantt extends Component implements HasSize {
 	 * @return A new {@link TreeGrid} instance
 	 */
 	public TreeGrid<Step> buildCaptionTreeGrid(String header) {
+		TreeData<Step> treeData = new TreeData<>();
+		treeData.addRootItems(getStepsList());
+		return buildCaptionTreeGrid(header, new TreeDataProvider<>(treeData));
+	}
+
+	/**
+	 * Builds a new {@link TreeGrid} instance with a single column that renders text
+	 * based on the step caption and loads the hierarchy with the given children
+	 * callback. Callback is called with <code>null</code> parent for the root
+	 * steps. Child steps are fetched only when a step is expanded, and released
+	 * when it is collapsed. Gantt steps are replaced with the root steps. See
+	 * {@link #buildCaptionTreeGrid(String, HierarchicalDataProvider)}.
+	 * <p>
+	 * Child count is resolved by calling the children callback and counting the
+	 * returned steps, so every child of an expanded step is loaded once for the
+	 * count and again for the rows. Use
+	 * {@link #buildCaptionTreeGrid(String, SerializableFunction, SerializablePredicate, SerializableToIntFunction)}
+	 * with a count callback for large hierarchies.
+	 * 
+	 * @param header           Header of the column
+	 * @param childrenProvider Callback returning child steps of the given parent
+	 *                         step
+	 * @param hasChildren      Predicate telling if the given step has child steps
+	 * @return A new {@link TreeGrid} instance
+	 */
+	public TreeGrid<Step> buildCaptionTreeGrid(String header,
+			SerializableFunction<Step, Stream<Step>> childrenProvider, SerializablePredicate<Step> hasChildren) {
+		return buildCaptionTreeGrid(header, childrenProvider, hasChildren, null);
+	}
+
+	/**
+	 * Builds a new {@link TreeGrid} instance like
+	 * {@link #buildCaptionTreeGrid(String, SerializableFunction, SerializablePredicate)}
+	 * but resolves the number of child steps with the given count callback
+	 * instead of loading and counting them.
+	 * 
+	 * @param header           Header of the column
+	 * @param childrenProvider Callback returning child steps of the given parent
+	 *                         step
+	 * @param hasChildren      Predicate telling if the given step has child steps
+	 * @param childCount       Callback returning number of child steps of the
+	 *                         given parent step, or <code>null</code> to count
+	 *                         the steps returned by the children callback
+	 * @return A new {@link TreeGrid} instance
+	 */
+	public TreeGrid<Step> buildCaptionTreeGrid(String header,
+			SerializableFunction<Step, Stream<Step>> childrenProvider, SerializablePredicate<Step> hasChildren,
+			SerializableToIntFunction<Step> childCount) {
+		return buildCaptionTreeGrid(header, new AbstractBackEndHierarchicalDataProvider<Step, Void>() {
+
+			@Override
+			public int getChildCount(HierarchicalQuery<Step, Void> query) {
+				if (childCount != null) {
+					return childCount.applyAsInt(query.getParent());
+				}
+				return (int) childrenProvider.apply(query.getParent()).count();
+			}
+
+			@Override
+			public boolean hasChildren(Step item) {
+				return hasChildren.test(item);
+			}
+
+			@Override
+			protected Stream<Step> fetchChildrenFromBackEnd(HierarchicalQuery<Step, Void> query) {
+				return childrenProvider.apply(query.getParent()).skip(query.getOffset()).limit(query.getLimit());
+			}
+		});
+	}
+
+	/**
+	 * Builds a new {@link TreeGrid} instance with a single column that renders text
+	 * based on the step caption and uses the given hierarchical data provider.
+	 * Gantt steps are replaced with the root steps of the data provider. Child
+	 * steps of an expanded step are fetched from the data provider and added to
+	 * the Gantt, and released when the step is collapsed. Instance is available
+	 * then with {@link #getCaptionGrid()}. This does not attach component to any
+	 * layout.
+	 * <p>
+	 * Gantt keeps the hierarchy in sync when steps are added, removed or moved
+	 * only when the data provider is a {@link TreeDataProvider}. Other data
+	 * providers are refreshed and are expected to reflect the changes.
+	 * 
+	 * @param header       Header of the column
+	 * @param dataProvider Hierarchical data provider for the steps
+	 * @return A new {@link TreeGrid} instance
+	 */
+	public TreeGrid<Step> buildCaptionTreeGrid(String header, HierarchicalDataProvider<Step, ?> dataProvider) {
 		removeCaptionGrid();
+		loadedCaptionTreeChildren.clear();
+		setSteps(fetchCaptionTreeChildren(dataProvider, null));
 		var grid = new TreeGrid<Step>();
 		this.captionGrid = grid;
 		grid.getStyle().set("--gantt-caption-grid-row-height", "30px");
@@ -1046,32 +1891,42 @@ public class Gantt extends Component implements HasSize {
 				refreshForHorizontalScrollbar();
 			}
 		});
-		TreeData<Step> treeData = new TreeData<>();
-		treeData.addRootItems(getStepsList());
-		var dataProvider = new TreeDataProvider<>(treeData);
 		grid.setDataProvider(dataProvider);
 		grid.addExpandListener(event -> {
-			addChildStepRecursively(grid, event.getItems(), new MutableInt());
+			if (!captionTreeExpansionInProgress) {
+				addChildStepRecursively(grid, event.getItems());
+			}
 		});
 		grid.addCollapseListener(event -> {
-			removeChildStepRecursively(grid, event.getItems());
+			if (!captionTreeExpansionInProgress) {
+				removeChildStepRecursively(grid, event.getItems());
+			}
 		});
 		captionGridDataChangeListener = addDataChangeListener(event -> {
-			switch (event.getDataEvent()) {
-				case STEP_ADD:
-					event.getSteps().forEach(step -> handleTreeDataAdd(treeData, step));
-					break;
-				case STEP_REMOVE:
-					event.getSteps().forEach(step -> {
-						removeChildStepRecursively(getCaptionTreeGrid(), step);
-						grid.getTreeData().removeItem(step);
-					});
-					break;
-				case STEP_MOVE:
-					event.getSteps().forEach(step -> handleTreeDataMove(grid.getTreeData(), step));
-					break;
-				default:
-					break;
+			var treeData = getCaptionTreeData(grid);
+			for (GanttDataChangeEvent change : event.getChanges()) {
+				switch (change.getDataEvent()) {
+					case STEP_ADD:
+						if (treeData != null) {
+							change.getSteps().forEach(step -> handleTreeDataAdd(treeData, step));
+						}
+						break;
+					case STEP_REMOVE:
+						change.getSteps().forEach(step -> {
+							removeChildStepRecursively(getCaptionTreeGrid(), step);
+							if (treeData != null) {
+								treeData.removeItem(step);
+							}
+						});
+						break;
+					case STEP_MOVE:
+						if (treeData != null) {
+							change.getSteps().forEach(step -> handleTreeDataMove(treeData, step));
+						}
+						break;
+					default:
+						break;
+				}
 			}
 			grid.getDataProvider().refreshAll();
 			refreshForHorizontalScrollbar();
@@ -1085,7 +1940,7 @@ public class Gantt extends Component implements HasSize {
 		treeData.addRootItems(step);
 		int flatSiblingIndex = indexOf(step) - 1;
 		if (flatSiblingIndex >= 0) {
-			Step flatSibling = getStepsList().get(flatSiblingIndex);
+			Step flatSibling = getStepAt(flatSiblingIndex);
 			if (getCaptionTreeGrid().isExpanded(flatSibling)) {
 				treeData.setParent(step, flatSibling);
 				treeData.moveAfterSibling(step, null);
@@ -1105,7 +1960,7 @@ public class Gantt extends Component implements HasSize {
 		Step sibling = null;
 		if (index > 0) {
 			List<Step> flatSubTree = getFlatSubTreeRecursively(treeData, step);
-			sibling = getStepsList().get(index - 1);
+			sibling = getStepAt(index - 1);
 			if (!flatSubTree.contains(sibling)) {
 				if (Objects.equals(sibling, oldParent)) {
 					newParent = sibling;
@@ -1122,72 +1977,191 @@ public class Gantt extends Component implements HasSize {
 			treeData.setParent(step, newParent);
 			treeData.moveAfterSibling(step, null);
 		}
-		// This is a messy way to sync state tree for updated DOM tree.
-		// First it updates the state tree in correct order by removing elements and adding elements, 
-		// then it removes all steps and adds them back to avoid processing previous changes in incorrect order in client side.
-		boolean isStepExpanded = getCaptionTreeGrid().isExpanded(step);
-		boolean isSiblingStepExpanded = sibling != null && getCaptionTreeGrid().isExpanded(sibling);
-		if(isStepExpanded) {
-			removeChildStepRecursively(getCaptionTreeGrid(), step);
-		}
-		if(isSiblingStepExpanded) {
-			removeChildStepRecursively(getCaptionTreeGrid(), sibling);
+		// Only the moved row was moved so far. Move the visible rows of its subtree
+		// right after it, and the visible rows of the expanded sibling right after
+		// the sibling, so that the moved subtree ends up after the sibling's subtree.
+		if (getCaptionTreeGrid().isExpanded(step)) {
+			moveRowsAfter(step, getFlatSubTreeRecursively(treeData, step));
 		}
-		if(isStepExpanded) {
-			expand(step);
-		}
-		if(isSiblingStepExpanded) {
-			expand(sibling);
-		}
-		if(isStepExpanded) {
-			// state tree changes are messed up now. DOM is correct. Need to reset it all.
-			reset();
+		if (sibling != null && getCaptionTreeGrid().isExpanded(sibling)) {
+			moveRowsAfter(sibling, getFlatSubTreeRecursively(treeData, sibling));
 		}
 	}
 
-	private void reset() {
-		var allSteps = getStepElements().toList();
-		var allSubSteps = getSubStepElements().toList();
-		allSteps.forEach(s -> doRemoveStep((Step) s.getModel(), false));
-		allSteps.forEach(s -> getElement().appendChild(s.getElement()));
-		allSubSteps.forEach(this::addSubStepElement);
+	/**
+	 * Moves existing rows of the given steps in order right after the anchor step
+	 * row. Steps without a row are skipped. If the rows are not already in place,
+	 * all of them are detached first and then inserted back with a single insert,
+	 * so that the client gets the removals before one contiguous addition.
+	 */
+	private void moveRowsAfter(Step anchor, List<Step> steps) {
+		var stepElements = new ArrayList<StepElement>(steps.size());
+		boolean inPlace = true;
+		int expectedIndex = indexOf(anchor) + 1;
+		for (Step step : steps) {
+			var stepElement = stepElementsByUid.get(step.getUid());
+			if (stepElement == null || !rowIndex.contains(step.getUid())) {
+				continue;
+			}
+			inPlace &= rowIndex.indexOf(step.getUid()) == expectedIndex++;
+			stepElements.add(stepElement);
+		}
+		if (inPlace) {
+			return;
+		}
+		stepElements.forEach(this::detachStepElement);
+		insertStepElements(indexOf(anchor) + 1, stepElements);
 	}
 	/**
-	 * Expands all child steps directed by the caption TreeGrid's hierarchical data source.
+	 * Expands all child steps directed by the caption TreeGrid's hierarchical data
+	 * source. Children of the child steps are included when they are expanded in
+	 * the caption TreeGrid.
 	 */
 	public void expand(Step item) {
 		expand(List.of(item));
 	}
 
 	/**
-	 * Expands all child steps directed by the caption TreeGrid's hierarchical data source.
+	 * Expands all child steps directed by the caption TreeGrid's hierarchical data
+	 * source. Children of the child steps are included when they are expanded in
+	 * the caption TreeGrid.
 	 */
 	public void expand(Collection<Step> items) {
 		if(getCaptionTreeGrid() == null) {
 			return;
 		}
-		addChildStepRecursively(getCaptionTreeGrid(), items, new MutableInt());
+		addChildStepRecursively(getCaptionTreeGrid(), items);
+	}
+
+	/**
+	 * Expands given step and its descendants recursively up to the given depth in
+	 * the caption TreeGrid and adds the rows of the expanded subtree in a single
+	 * batch. Depth 0 expands only the given step.
+	 */
+	public void expandRecursively(Step item, int depth) {
+		expandRecursively(List.of(item), depth);
+	}
+
+	/**
+	 * Expands given steps and their descendants recursively up to the given depth
+	 * in the caption TreeGrid and adds the rows of the expanded subtrees in a
+	 * single batch per step. Depth 0 expands only the given steps.
+	 */
+	public void expandRecursively(Collection<Step> items, int depth) {
+		var grid = getCaptionTreeGrid();
+		if (grid == null) {
+			return;
+		}
+		// rows are added once below instead of on every expand event
+		captionTreeExpansionInProgress = true;
+		try {
+			grid.expandRecursively(items, depth);
+		} finally {
+			captionTreeExpansionInProgress = false;
+		}
+		addChildStepRecursively(grid, items);
 	}
 
-	private void addChildStepRecursively(TreeGrid<Step> grid, Collection<Step> items, MutableInt index) {
-		items.forEach(item -> addChildStepRecursively(grid, item, index));
+	/**
+	 * Expands all steps in the caption TreeGrid and adds rows of all child steps.
+	 * Row order of the whole tree is resolved once and missing rows are inserted
+	 * in batches.
+	 */
+	public void expandAll() {
+		var grid = getCaptionTreeGrid();
+		if (grid == null) {
+			return;
+		}
+		var rootItems = getCaptionTreeChildren(grid, null);
+		captionTreeExpansionInProgress = true;
+		try {
+			grid.expandRecursively(rootItems, Integer.MAX_VALUE);
+		} finally {
+			captionTreeExpansionInProgress = false;
+		}
+		var steps = new ArrayList<Step>();
+		addVisibleChildStepsRecursively(grid, null, steps);
+		insertMissingRows(null, steps);
 	}
 
-	private void addChildStepRecursively(TreeGrid<Step> grid, Step item, MutableInt index) {
-		var dataProvider = grid.getDataProvider();
-		if (!dataProvider.hasChildren(item)) {
+	/**
+	 * Collapses all steps in the caption TreeGrid and removes rows of all child
+	 * steps.
+	 */
+	public void collapseAll() {
+		var grid = getCaptionTreeGrid();
+		if (grid == null) {
 			return;
 		}
-		if (index.getValue() == 0) {
-			index.setValue(getStepsList().indexOf(item) + 1);
+		var rootItems = getCaptionTreeChildren(grid, null);
+		captionTreeExpansionInProgress = true;
+		try {
+			if (getCaptionTreeData(grid) != null) {
+				grid.collapseRecursively(rootItems, Integer.MAX_VALUE);
+			} else {
+				// only steps with loaded children can be expanded
+				grid.collapse(loadedCaptionTreeChildren.keySet().stream().map(this::getStep)
+						.filter(Objects::nonNull).toList());
+			}
+		} finally {
+			captionTreeExpansionInProgress = false;
 		}
-		for (Step child : grid.getTreeData().getChildren(item)) {
-			addStep(index.getValue(), child, false);
-			index.increment();
-			addChildStepRecursively(grid, child, index);
+		removeChildStepRecursively(grid, rootItems);
+	}
+
+	private void addChildStepRecursively(TreeGrid<Step> grid, Collection<Step> items) {
+		for (Step item : items) {
+			var steps = new ArrayList<Step>();
+			var treeData = getCaptionTreeData(grid);
+			if (treeData == null || treeData.contains(item)) {
+				addVisibleChildStepsRecursively(grid, item, steps);
+			}
+			insertMissingRows(item, steps);
 		}
 	}
 
+	/**
+	 * Collects children of the given step in row order, including children of the
+	 * child steps that are expanded in the grid. <code>null</code> step collects
+	 * the whole visible tree starting from the root steps.
+	 */
+	private void addVisibleChildStepsRecursively(TreeGrid<Step> grid, Step step, List<Step> steps) {
+		for (Step child : getCaptionTreeChildren(grid, step)) {
+			steps.add(child);
+			if (grid.isExpanded(child)) {
+				addVisibleChildStepsRecursively(grid, child, steps);
+			}
+		}
+	}
+
+	/**
+	 * Adds rows for the given steps in the given order after the anchor step, or
+	 * from the first row if anchor is <code>null</code>. Steps that already have a
+	 * row are kept where they are and following missing steps are inserted after
+	 * them. Consecutive missing steps are inserted as one batch.
+	 */
+	private void insertMissingRows(Step anchor, List<Step> steps) {
+		Step previous = anchor;
+		var missing = new ArrayList<StepElement>();
+		for (Step step : steps) {
+			if (contains(ensureUID(step))) {
+				insertRowsAfter(previous, missing);
+				previous = step;
+			} else {
+				missing.add(createStepElement(step));
+			}
+		}
+		insertRowsAfter(previous, missing);
+	}
+
+	private void insertRowsAfter(Step previous, List<StepElement> stepElements) {
+		if (stepElements.isEmpty()) {
+			return;
+		}
+		insertStepElements(previous != null ? indexOf(previous) + 1 : 0, List.copyOf(stepElements));
+		stepElements.clear();
+	}
+
 	private List<Step> getFlatSubTreeRecursively(TreeData<Step> treeData, Step step) {
 		List<Step> steps = new ArrayList<>();
 		if (treeData.contains(step)) {
@@ -1212,15 +2186,76 @@ public class Gantt extends Component implements HasSize {
 	 * source.
 	 */
 	private void removeChildStepRecursively(TreeGrid<Step> grid, Step step) {
-		var dataProvider = grid.getDataProvider();
-		if (dataProvider.hasChildren(step)) {
-			for (Step child : grid.getTreeData().getChildren(step)) {
-				doRemoveStep(child, false);
-				removeChildStepRecursively(grid, child);
-			}
+		var treeData = getCaptionTreeData(grid);
+		List<Step> children;
+		if (treeData == null) {
+			// release loaded children
+			children = ofNullable(loadedCaptionTreeChildren.remove(step.getUid())).orElse(List.of());
+		} else if (grid.getDataProvider().hasChildren(step)) {
+			children = treeData.getChildren(step);
+		} else {
+			children = List.of();
+		}
+		for (Step child : children) {
+			doRemoveStep(child, false);
+			removeChildStepRecursively(grid, child);
 		}
 	}
 
+	/**
+	 * Returns {@link TreeData} of the given caption TreeGrid or null if it doesn't
+	 * use a {@link TreeDataProvider}.
+	 */
+	private TreeData<Step> getCaptionTreeData(TreeGrid<Step> grid) {
+		if (grid.getDataProvider() instanceof TreeDataProvider<Step> treeDataProvider) {
+			return treeDataProvider.getTreeData();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns child steps of the given step from the caption TreeGrid's data
+	 * provider, or root steps for <code>null</code> step. Children fetched from
+	 * other than {@link TreeDataProvider} are kept until the step is collapsed.
+	 */
+	private List<Step> getCaptionTreeChildren(TreeGrid<Step> grid, Step step) {
+		var treeData = getCaptionTreeData(grid);
+		if (treeData != null) {
+			return step == null ? treeData.getRootItems() : treeData.getChildren(step);
+		}
+		if (step == null) {
+			return fetchCaptionTreeChildren(grid.getDataProvider(), null);
+		}
+		if (!grid.getDataProvider().hasChildren(step)) {
+			return List.of();
+		}
+		return loadedCaptionTreeChildren.computeIfAbsent(step.getUid(),
+				uid -> fetchCaptionTreeChildren(grid.getDataProvider(), step));
+	}
+
+	/**
+	 * Returns all descendants of the given step in the caption TreeGrid. Only
+	 * loaded children are included when data provider is not a
+	 * {@link TreeDataProvider}.
+	 */
+	private List<Step> getCaptionTreeSubTree(TreeGrid<Step> grid, Step step) {
+		var treeData = getCaptionTreeData(grid);
+		if (treeData != null) {
+			return getFlatSubTreeRecursively(treeData, step);
+		}
+		List<Step> steps = new ArrayList<>();
+		for (Step child : loadedCaptionTreeChildren.getOrDefault(step.getUid(), List.of())) {
+			steps.add(child);
+			steps.addAll(getCaptionTreeSubTree(grid, child));
+		}
+		return steps;
+	}
+
+	private static <F> List<Step> fetchCaptionTreeChildren(HierarchicalDataProvider<Step, F> dataProvider,
+			Step parent) {
+		return dataProvider.fetchChildren(new HierarchicalQuery<>(null, parent)).toList();
+	}
+
 	/**
 	 * Remove caption {@link Grid} instance if it exists. Grid will not be kept in
 	 * sync with the Gantt after calling this. This does not detach component from
@@ -1257,34 +2292,260 @@ public class Gantt extends Component implements HasSize {
 		return captionGrid instanceof TreeGrid ? (TreeGrid<Step>) captionGrid : null;
 	}
 	
+	/**
+	 * Schedules synchronization of the caption grid and the Gantt horizontal
+	 * scrollbars. At most one synchronization is sent per response.
+	 */
 	private void refreshForHorizontalScrollbar() {
-		if(captionGrid == null) {
+		if (captionGrid == null || horizontalScrollbarRefreshPending) {
 			return;
 		}
+		horizontalScrollbarRefreshPending = true;
+		getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this, context -> {
+			horizontalScrollbarRefreshPending = false;
+			if (captionGrid != null) {
+				getElement().executeJs("this._ganttSyncCaptionGridScrollbar($0)", captionGrid);
+			}
+		}));
+	}
+
+	/**
+	 * Defines the client side function for
+	 * {@link #refreshForHorizontalScrollbar()} once per attach, so that the
+	 * script is not sent with every synchronization.
+	 */
+	private void registerHorizontalScrollbarSync() {
 		getElement().executeJs(
 				"""
-				let self = this; 
-				this.updateComplete.then(() => {
-						$0.style.setProperty('--gantt-caption-grid-header-height', self._timeline.clientHeight+'px');
-						$0.$.table.style.width='calc(100% + '+self.scrollbarWidth+'px'; 
-						const left = $0.$.table.scrollLeft > 0; 
-						const right = $0.$.table.scrollLeft < $0.$.table.scrollWidth - $0.$.table.clientWidth; 
+				this._ganttSyncCaptionGridScrollbar = function(grid) {
+					let self = this;
+					this.updateComplete.then(() => {
+						grid.style.setProperty('--gantt-caption-grid-header-height', self._timeline.clientHeight+'px');
+						grid.$.table.style.width='calc(100% + '+self.scrollbarWidth+'px'; 
+						const left = grid.$.table.scrollLeft > 0; 
+						const right = grid.$.table.scrollLeft < grid.$.table.scrollWidth - grid.$.table.clientWidth; 
 						const gridOverflowX = left || right; 
 						this._container.style.overflowX = (gridOverflowX) ? 'scroll' : 'auto'; 
 						if(self.isContentOverflowingHorizontally() && !gridOverflowX) { 
-							$0.$.scroller.style.height = 'calc(100% - ' + self.scrollbarWidth + 'px)';
-							$0.$.scroller.style.minHeight = $0.$.scroller.style.height;
+							grid.$.scroller.style.height = 'calc(100% - ' + self.scrollbarWidth + 'px)';
+							grid.$.scroller.style.minHeight = grid.$.scroller.style.height;
 						} else { 
-							$0.$.scroller.style.removeProperty('height');
-							$0.$.scroller.style.removeProperty('min-height'); 
+							grid.$.scroller.style.removeProperty('height');
+							grid.$.scroller.style.removeProperty('min-height'); 
 						}
 					})
-				""",
-				captionGrid);
+				};
+				""");
 	}
 	
-	private void fireDataChangeEvent(DataEvent eventType, Stream<Step> steps) {
-		fireEvent(new GanttDataChangeEvent(this, eventType, steps));
+	private void fireDataChangeEvent(DataEvent eventType, List<Step> steps) {
+		if (!coalesceDataChangeEvents) {
+			fireEvent(new GanttDataChangeEvent(this, eventType, steps));
+			return;
+		}
+		if (pendingDataChanges.isEmpty()) {
+			getElement().getNode()
+					.runWhenAttached(ui -> ui.beforeClientResponse(this, context -> flushDataChangeEvents()));
+		}
+		var last = pendingDataChanges.isEmpty() ? null : pendingDataChanges.get(pendingDataChanges.size() - 1);
+		if (last == null || last.dataEvent != eventType) {
+			last = new PendingDataChange(eventType);
+			pendingDataChanges.add(last);
+		}
+		last.steps.addAll(steps);
+	}
+
+	/**
+	 * Fires data change events coalesced since the previous flush. A single
+	 * change is fired as is, and multiple changes as one
+	 * {@link DataEvent#BATCH} event.
+	 */
+	private void flushDataChangeEvents() {
+		if (pendingDataChanges.isEmpty()) {
+			return;
+		}
+		var changes = pendingDataChanges.stream()
+				.map(change -> new GanttDataChangeEvent(this, change.dataEvent, change.steps)).toList();
+		pendingDataChanges.clear();
+		fireEvent(changes.size() == 1 ? changes.get(0) : new GanttDataChangeEvent(this, changes));
+	}
+
+	/**
+	 * Sets whether data change events are coalesced. When enabled, changes of
+	 * consecutive operations of the same type are merged, and all changes during
+	 * a server round-trip are fired before the response as one
+	 * {@link DataEvent#BATCH} event, or as a single event of the change type if
+	 * there is only one kind of change. Listeners receive the event after the
+	 * changes, so they see the state of the Gantt at the end of the round-trip.
+	 * Disabling fires pending changes immediately. Default is <code>false</code>.
+	 * 
+	 * @param coalesce <code>true</code> to coalesce data change events
+	 */
+	public void setCoalesceDataChangeEvents(boolean coalesce) {
+		this.coalesceDataChangeEvents = coalesce;
+		if (!coalesce) {
+			flushDataChangeEvents();
+		}
+	}
+
+	/**
+	 * Returns true if data change events are coalesced. See
+	 * {@link #setCoalesceDataChangeEvents(boolean)}.
+	 */
+	public boolean isCoalesceDataChangeEvents() {
+		return coalesceDataChangeEvents;
+	}
+
+	/**
+	 * Sets whether overlapping sub steps of the same owner step are detected, for
+	 * example double bookings when each row is a resource and its sub steps are
+	 * the reservations. When enabled, sub steps are checked when they are added,
+	 * moved, resized or refreshed, only against the sub steps they overlap.
+	 * Conflicting sub step elements get {@link #SUB_STEP_CONFLICT_STYLE_NAME}
+	 * class name and a {@link SubStepConflictEvent} is fired, both once per
+	 * server round-trip. Resized sub steps are checked with the dates of the
+	 * {@link StepResizeEvent}. Default is <code>false</code>.
+	 * 
+	 * @param enabled <code>true</code> to detect conflicts
+	 */
+	public void setSubStepConflictDetection(boolean enabled) {
+		if (enabled == (subStepConflicts != null)) {
+			return;
+		}
+		if (enabled) {
+			subStepConflicts = new SubStepConflictIndex();
+			getSubStepElements().map(StepElement::getModel).map(SubStep.class::cast)
+					.forEach(subStep -> subStepConflicts.update(subStep, subStep.getStartDate(), subStep.getEndDate()));
+			scheduleSubStepConflictFlush();
+		} else {
+			var conflictingUids = subStepConflicts.getConflictingUids();
+			subStepConflicts = null;
+			conflictingUids.forEach(uid -> getStepElementOptional(uid).ifPresent(
+					stepElement -> stepElement.getElement().getClassList().remove(SUB_STEP_CONFLICT_STYLE_NAME)));
+		}
+	}
+
+	/**
+	 * Returns true if overlapping sub steps are detected. See
+	 * {@link #setSubStepConflictDetection(boolean)}.
+	 */
+	public boolean isSubStepConflictDetection() {
+		return subStepConflicts != null;
+	}
+
+	/**
+	 * Returns sub steps of the same owner that overlap the given sub step. Empty
+	 * if conflict detection is disabled.
+	 */
+	public List<SubStep> getConflictingSubSteps(SubStep subStep) {
+		if (subStepConflicts == null) {
+			return List.of();
+		}
+		return subStepConflicts.getOverlaps(subStep.getUid()).stream().map(this::getSubStep)
+				.filter(Objects::nonNull).toList();
+	}
+
+	private void updateSubStepConflicts(SubStep subStep, LocalDateTime start, LocalDateTime end) {
+		subStepConflicts.update(subStep, start, end);
+		scheduleSubStepConflictFlush();
+	}
+
+	private void removeSubStepConflicts(String uid) {
+		if (subStepConflicts != null) {
+			subStepConflicts.remove(uid);
+			scheduleSubStepConflictFlush();
+		}
+	}
+
+	private void scheduleSubStepConflictFlush() {
+		if (subStepConflictFlushPending || !subStepConflicts.hasChanges()) {
+			return;
+		}
+		subStepConflictFlushPending = true;
+		getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this, context -> {
+			subStepConflictFlushPending = false;
+			flushSubStepConflicts();
+		}));
+	}
+
+	/**
+	 * Updates class names of the sub step elements whose conflict state has
+	 * changed since the previous flush and fires a {@link SubStepConflictEvent}
+	 * for them.
+	 */
+	private void flushSubStepConflicts() {
+		if (subStepConflicts == null) {
+			return;
+		}
+		List<SubStep> conflicting = new ArrayList<>();
+		List<SubStep> resolved = new ArrayList<>();
+		for (String uid : subStepConflicts.drainChangedUids()) {
+			var stepElement = stepElementsByUid.get(uid);
+			if (stepElement == null) {
+				continue;
+			}
+			boolean isConflicting = subStepConflicts.isConflicting(uid);
+			var classList = stepElement.getElement().getClassList();
+			if (classList.contains(SUB_STEP_CONFLICT_STYLE_NAME) != isConflicting) {
+				classList.set(SUB_STEP_CONFLICT_STYLE_NAME, isConflicting);
+				(isConflicting ? conflicting : resolved).add((SubStep) stepElement.getModel());
+			}
+		}
+		if (!conflicting.isEmpty() || !resolved.isEmpty()) {
+			fireEvent(new SubStepConflictEvent(this, conflicting, resolved));
+		}
+	}
+
+	private static class PendingDataChange implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final DataEvent dataEvent;
+		private final List<Step> steps = new ArrayList<>();
+
+		private PendingDataChange(DataEvent dataEvent) {
+			this.dataEvent = dataEvent;
+		}
+	}
+
+	/**
+	 * Context menu shared by all steps. Opens only for a step without own context
+	 * menu builders.
+	 */
+	private class StepContextMenu extends ContextMenu {
+
+		@Override
+		protected boolean onBeforeOpenMenu(JsonObject eventDetail) {
+			if (stepContextMenuBuilders.isEmpty() || !eventDetail.hasKey("uid")) {
+				return false;
+			}
+			String uid = eventDetail.getString("uid");
+			var stepElement = getStepElement(uid);
+			if (stepElement == null || stepElement.hasContextMenu()) {
+				return false;
+			}
+			removeAll();
+			stepContextMenuBuilders.forEach(builder -> builder.accept(this, uid));
+			return true;
+		}
+	}
+
+	/**
+	 * {@link GanttDataProvider} backed by the steps in this Gantt.
+	 */
+	private class InMemoryDataProvider implements GanttDataProvider {
+
+		@Override
+		public Stream<Step> fetch(GanttQuery query) {
+			int from = Math.min(query.getRowOffset(), rowIndex.size());
+			int to = (int) Math.min((long) from + query.getRowLimit(), rowIndex.size());
+			return rowIndex.subList(from, to).stream().map(StepElement::getModel).map(Step.class::cast);
+		}
+
+		@Override
+		public int size(GanttQuery query) {
+			return rowIndex.size();
+		}
 	}
 	
 }
@@ -0,0 +1,246 @@
+package org.vaadin.tltv.gantt;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.vaadin.tltv.gantt.model.GanttStep;
+
+/**
+ * Date range index of the steps and sub steps in {@link Gantt}. Keeps steps in
+ * a treap ordered by start date and augmented with the maximum end date of each
+ * subtree, so that steps overlapping a date range are found in
+ * <code>O(log n + k)</code> time where <code>k</code> is the number of found
+ * steps. Steps are indexed by their dates at the time of {@link #put(GanttStep)}.
+ * Steps without start or end date are not indexed.
+ */
+class StepIntervalIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static class Node implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final LocalDateTime start;
+		private final LocalDateTime end;
+		private final long sequence;
+		private final int priority;
+		private GanttStep step;
+		private LocalDateTime maxEnd;
+		private Node left;
+		private Node right;
+
+		private Node(GanttStep step, LocalDateTime start, LocalDateTime end, long sequence, int priority) {
+			this.step = step;
+			this.start = start;
+			this.end = end;
+			this.sequence = sequence;
+			this.priority = priority;
+			this.maxEnd = end;
+		}
+
+		private int compareTo(Node other) {
+			int result = start.compareTo(other.start);
+			return result != 0 ? result : Long.compare(sequence, other.sequence);
+		}
+	}
+
+	private final Map<String, Node> nodesByUid = new HashMap<>();
+	private final Random random = new Random();
+	private long nextSequence;
+	private Node root;
+
+	/**
+	 * Adds the given step or updates its dates if it's already indexed.
+	 */
+	public void put(GanttStep step) {
+		put(step, step.getStartDate(), step.getEndDate());
+	}
+
+	/**
+	 * Adds the given step with the given dates or updates its dates if it's
+	 * already indexed.
+	 */
+	public void put(GanttStep step, LocalDateTime start, LocalDateTime end) {
+		var node = nodesByUid.get(step.getUid());
+		if (node != null && node.start.equals(start) && node.end.equals(end)) {
+			node.step = step;
+			return;
+		}
+		if (node != null) {
+			remove(step.getUid());
+		}
+		if (start == null || end == null) {
+			return;
+		}
+		node = new Node(step, start, end, nextSequence++, random.nextInt());
+		nodesByUid.put(step.getUid(), node);
+		root = insert(root, node);
+	}
+
+	/**
+	 * Removes step of the given UID if it's indexed.
+	 */
+	public void remove(String uid) {
+		var node = nodesByUid.remove(uid);
+		if (node != null) {
+			root = delete(root, node);
+		}
+	}
+
+	/**
+	 * Returns number of indexed steps.
+	 */
+	public int size() {
+		return nodesByUid.size();
+	}
+
+	/**
+	 * Returns steps that start before the given end and end after the given start,
+	 * ordered by start date.
+	 *
+	 * @param start Range start, inclusive
+	 * @param end   Range end, exclusive
+	 * @return A new list of the steps
+	 */
+	public List<GanttStep> findOverlapping(LocalDateTime start, LocalDateTime end) {
+		List<GanttStep> result = new ArrayList<>();
+		collect(root, start, end, result);
+		return result;
+	}
+
+	/**
+	 * Returns steps that start at or before the given date time and end after it,
+	 * ordered by start date.
+	 */
+	public List<GanttStep> findContaining(LocalDateTime dateTime) {
+		List<GanttStep> result = new ArrayList<>();
+		collectContaining(root, dateTime, result);
+		return result;
+	}
+
+	/**
+	 * Removes all steps.
+	 */
+	public void clear() {
+		nodesByUid.clear();
+		root = null;
+	}
+
+	private static void collect(Node node, LocalDateTime start, LocalDateTime end, List<GanttStep> result) {
+		// subtrees ending at or before the range start are skipped
+		if (node == null || !node.maxEnd.isAfter(start)) {
+			return;
+		}
+		collect(node.left, start, end, result);
+		if (!node.start.isBefore(end)) {
+			return;
+		}
+		if (node.end.isAfter(start)) {
+			result.add(node.step);
+		}
+		collect(node.right, start, end, result);
+	}
+
+	private static void collectContaining(Node node, LocalDateTime dateTime, List<GanttStep> result) {
+		if (node == null || !node.maxEnd.isAfter(dateTime)) {
+			return;
+		}
+		collectContaining(node.left, dateTime, result);
+		if (node.start.isAfter(dateTime)) {
+			return;
+		}
+		if (node.end.isAfter(dateTime)) {
+			result.add(node.step);
+		}
+		collectContaining(node.right, dateTime, result);
+	}
+
+	private static Node insert(Node node, Node inserted) {
+		if (node == null) {
+			return inserted;
+		}
+		if (inserted.compareTo(node) < 0) {
+			node.left = insert(node.left, inserted);
+			if (node.left.priority > node.priority) {
+				node = rotateRight(node);
+			}
+		} else {
+			node.right = insert(node.right, inserted);
+			if (node.right.priority > node.priority) {
+				node = rotateLeft(node);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private static Node delete(Node node, Node deleted) {
+		if (node == null) {
+			return null;
+		}
+		if (node == deleted) {
+			return merge(node.left, node.right);
+		}
+		if (deleted.compareTo(node) < 0) {
+			node.left = delete(node.left, deleted);
+		} else {
+			node.right = delete(node.right, deleted);
+		}
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Merges two trees where all nodes in <code>left</code> come before nodes in
+	 * <code>right</code>.
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+
+	private static Node rotateRight(Node node) {
+		var pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		return pivot;
+	}
+
+	private static Node rotateLeft(Node node) {
+		var pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		return pivot;
+	}
+
+	private static void update(Node node) {
+		var maxEnd = node.end;
+		if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+			maxEnd = node.left.maxEnd;
+		}
+		if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+			maxEnd = node.right.maxEnd;
+		}
+		node.maxEnd = maxEnd;
+	}
+}
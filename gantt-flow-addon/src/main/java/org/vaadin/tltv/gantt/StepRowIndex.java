@@ -0,0 +1,361 @@
+package org.vaadin.tltv.gantt;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.vaadin.tltv.gantt.element.StepElement;
+
+/**
+ * Row order of the step elements in {@link Gantt}. Keeps step elements in an
+ * implicit treap (randomized balanced binary tree ordered by position and
+ * augmented with subtree sizes) so that position of a UID and a step element at
+ * a position are both resolved in logarithmic time without materializing a
+ * list of the steps. Sub steps are not part of the row order.
+ */
+class StepRowIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static class Node implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final StepElement stepElement;
+		private final int priority;
+		private int size = 1;
+		private Node left;
+		private Node right;
+		private Node parent;
+
+		private Node(StepElement stepElement, int priority) {
+			this.stepElement = stepElement;
+			this.priority = priority;
+		}
+	}
+
+	private final Map<String, Node> nodesByUid = new HashMap<>();
+	private final Random random = new Random();
+	private Node root;
+
+	// results of the latest split
+	private Node splitLeft;
+	private Node splitRight;
+
+	/**
+	 * Returns number of rows.
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns true if a row exists for the given UID.
+	 */
+	public boolean contains(String uid) {
+		return nodesByUid.containsKey(uid);
+	}
+
+	/**
+	 * Inserts step element at the given zero based position. Step element at the
+	 * position and all after it are moved one position forward.
+	 *
+	 * @param index        Zero based index between 0 and {@link #size()}
+	 * @param stepElement Inserted step element, not already in the index
+	 */
+	public void insert(int index, StepElement stepElement) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		var node = new Node(stepElement, random.nextInt());
+		nodesByUid.put(stepElement.getUid(), node);
+		split(root, index);
+		var left = splitLeft;
+		var right = splitRight;
+		root = merge(merge(left, node), right);
+		root.parent = null;
+	}
+
+	/**
+	 * Inserts all given step elements in order starting from the given zero based
+	 * position. New rows are built into a subtree in linear time and merged in
+	 * with a single split.
+	 *
+	 * @param index        Zero based index between 0 and {@link #size()}
+	 * @param stepElements Inserted step elements, not already in the index
+	 */
+	public void insertAll(int index, List<StepElement> stepElements) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		if (stepElements.isEmpty()) {
+			return;
+		}
+		// build a treap from the nodes in order with a stack of the right spine
+		var spine = new ArrayDeque<Node>();
+		for (StepElement stepElement : stepElements) {
+			var node = new Node(stepElement, random.nextInt());
+			nodesByUid.put(stepElement.getUid(), node);
+			Node last = null;
+			while (!spine.isEmpty() && spine.peek().priority < node.priority) {
+				last = spine.pop();
+			}
+			node.left = last;
+			if (last != null) {
+				last.parent = node;
+			}
+			if (!spine.isEmpty()) {
+				spine.peek().right = node;
+				node.parent = spine.peek();
+			}
+			spine.push(node);
+		}
+		var subtree = spine.peekLast();
+		updateSizes(subtree);
+		split(root, index);
+		var left = splitLeft;
+		var right = splitRight;
+		root = merge(merge(left, subtree), right);
+		root.parent = null;
+	}
+
+	/**
+	 * Removes row of the given UID if it exists.
+	 *
+	 * @param uid Target UID
+	 * @return true if row was removed
+	 */
+	public boolean remove(String uid) {
+		var node = nodesByUid.remove(uid);
+		if (node == null) {
+			return false;
+		}
+		var replacement = merge(node.left, node.right);
+		var parent = node.parent;
+		if (replacement != null) {
+			replacement.parent = parent;
+		}
+		if (parent == null) {
+			root = replacement;
+		} else if (parent.left == node) {
+			parent.left = replacement;
+		} else {
+			parent.right = replacement;
+		}
+		for (var p = parent; p != null; p = p.parent) {
+			p.size--;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns zero based position of the given UID or -1 if it doesn't exist.
+	 */
+	public int indexOf(String uid) {
+		var node = nodesByUid.get(uid);
+		if (node == null) {
+			return -1;
+		}
+		int index = size(node.left);
+		for (; node.parent != null; node = node.parent) {
+			if (node.parent.right == node) {
+				index += size(node.parent.left) + 1;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns step element at the given zero based position.
+	 */
+	public StepElement get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		return nodeAt(index).stepElement;
+	}
+
+	/**
+	 * Returns step elements of the given zero based position range in order. Only
+	 * the first element is searched, following elements are resolved by walking
+	 * the tree in order.
+	 *
+	 * @param fromIndex Low endpoint, inclusive
+	 * @param toIndex   High endpoint, exclusive
+	 * @return A new list of the step elements
+	 */
+	public List<StepElement> subList(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException(
+					"From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+		}
+		var stepElements = new ArrayList<StepElement>(toIndex - fromIndex);
+		if (fromIndex == toIndex) {
+			return stepElements;
+		}
+		var node = nodeAt(fromIndex);
+		for (int i = fromIndex; i < toIndex; i++) {
+			stepElements.add(node.stepElement);
+			node = successor(node);
+		}
+		return stepElements;
+	}
+
+	/**
+	 * Returns iterator over the step elements in row order. Next element is
+	 * resolved lazily by walking the tree in order, so iterating all rows takes
+	 * linear time. Index must not be modified while iterating.
+	 */
+	public Iterator<StepElement> iterator() {
+		return new Iterator<>() {
+
+			private Node next = root != null ? nodeAt(0) : null;
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public StepElement next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				var stepElement = next.stepElement;
+				next = successor(next);
+				return stepElement;
+			}
+		};
+	}
+
+	/**
+	 * Removes all rows.
+	 */
+	public void clear() {
+		nodesByUid.clear();
+		root = null;
+	}
+
+	private Node nodeAt(int index) {
+		var node = root;
+		while (true) {
+			int leftSize = size(node.left);
+			if (index < leftSize) {
+				node = node.left;
+			} else if (index == leftSize) {
+				return node;
+			} else {
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Returns the next node in order or null for the last node.
+	 */
+	private static Node successor(Node node) {
+		if (node.right != null) {
+			node = node.right;
+			while (node.left != null) {
+				node = node.left;
+			}
+			return node;
+		}
+		while (node.parent != null && node.parent.right == node) {
+			node = node.parent;
+		}
+		return node.parent;
+	}
+
+	private static int size(Node node) {
+		return node != null ? node.size : 0;
+	}
+
+	private static void update(Node node) {
+		node.size = size(node.left) + size(node.right) + 1;
+	}
+
+	/**
+	 * Recalculates sizes of the given subtree in post-order without recursion.
+	 */
+	private static void updateSizes(Node subtree) {
+		var stack = new ArrayDeque<Node>();
+		Node lastVisited = null;
+		Node node = subtree;
+		while (node != null || !stack.isEmpty()) {
+			if (node != null) {
+				stack.push(node);
+				node = node.left;
+			} else {
+				var top = stack.peek();
+				if (top.right != null && top.right != lastVisited) {
+					node = top.right;
+				} else {
+					update(top);
+					lastVisited = stack.pop();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Splits given tree to the first <code>count</code> nodes and to the rest.
+	 * Results are set to {@link #splitLeft} and {@link #splitRight}.
+	 */
+	private void split(Node node, int count) {
+		if (node == null) {
+			splitLeft = null;
+			splitRight = null;
+			return;
+		}
+		if (size(node.left) < count) {
+			split(node.right, count - size(node.left) - 1);
+			node.right = splitLeft;
+			if (splitLeft != null) {
+				splitLeft.parent = node;
+			}
+			update(node);
+			node.parent = null;
+			splitLeft = node;
+		} else {
+			split(node.left, count);
+			node.left = splitRight;
+			if (splitRight != null) {
+				splitRight.parent = node;
+			}
+			update(node);
+			node.parent = null;
+			splitRight = node;
+		}
+	}
+
+	/**
+	 * Merges two trees where all nodes in <code>left</code> come before nodes in
+	 * <code>right</code>. Parent of the returned root is not updated.
+	 */
+	private Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			left.right.parent = left;
+			update(left);
+			return left;
+		}
+		right.left = merge(left, right.left);
+		right.left.parent = right;
+		update(right);
+		return right;
+	}
+}
@@ -0,0 +1,146 @@
+package org.vaadin.tltv.gantt;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.vaadin.tltv.gantt.model.SubStep;
+
+/**
+ * Overlapping sub steps of the same owner step in {@link Gantt}. Sub steps of
+ * each owner are kept in their own {@link StepIntervalIndex}, so that an added,
+ * moved or resized sub step is compared only with the sub steps it overlaps,
+ * without rescanning the owner. Overlaps are kept as pairs, so a sub step
+ * stops conflicting when its last overlapping sub step moves away.
+ */
+class SubStepConflictIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String, StepIntervalIndex> intervalsByOwnerUid = new HashMap<>();
+	private final Map<String, String> ownerUidByUid = new HashMap<>();
+	private final Map<String, Set<String>> overlapsByUid = new HashMap<>();
+	// UIDs that have gained or lost their last overlap since the previous drain
+	private final Set<String> changedUids = new LinkedHashSet<>();
+
+	/**
+	 * Updates the given sub step with the given dates and resolves its overlaps
+	 * with the other sub steps of its current owner.
+	 */
+	public void update(SubStep subStep, LocalDateTime start, LocalDateTime end) {
+		String uid = subStep.getUid();
+		boolean wasConflicting = isConflicting(uid);
+		removeOverlaps(uid);
+		String ownerUid = subStep.getOwner().getUid();
+		String previousOwnerUid = ownerUidByUid.put(uid, ownerUid);
+		if (previousOwnerUid != null && !previousOwnerUid.equals(ownerUid)) {
+			removeFromOwner(previousOwnerUid, uid);
+		}
+		var intervals = intervalsByOwnerUid.computeIfAbsent(ownerUid, key -> new StepIntervalIndex());
+		if (start != null && end != null) {
+			for (var other : intervals.findOverlapping(start, end)) {
+				if (!other.getUid().equals(uid)) {
+					addOverlap(uid, other.getUid());
+				}
+			}
+		}
+		intervals.put(subStep, start, end);
+		if (wasConflicting != isConflicting(uid)) {
+			changedUids.add(uid);
+		}
+	}
+
+	/**
+	 * Removes the sub step of the given UID and its overlaps.
+	 */
+	public void remove(String uid) {
+		if (isConflicting(uid)) {
+			changedUids.add(uid);
+		}
+		removeOverlaps(uid);
+		var ownerUid = ownerUidByUid.remove(uid);
+		if (ownerUid != null) {
+			removeFromOwner(ownerUid, uid);
+		}
+	}
+
+	/**
+	 * Returns true if the sub step of the given UID overlaps another sub step of
+	 * the same owner.
+	 */
+	public boolean isConflicting(String uid) {
+		return overlapsByUid.containsKey(uid);
+	}
+
+	/**
+	 * Returns UIDs of the sub steps overlapping the sub step of the given UID.
+	 */
+	public Set<String> getOverlaps(String uid) {
+		return Set.copyOf(overlapsByUid.getOrDefault(uid, Set.of()));
+	}
+
+	/**
+	 * Returns UIDs of all conflicting sub steps.
+	 */
+	public Set<String> getConflictingUids() {
+		return Set.copyOf(overlapsByUid.keySet());
+	}
+
+	/**
+	 * Returns true if some sub step has gained or lost its last overlap since the
+	 * previous {@link #drainChangedUids()}.
+	 */
+	public boolean hasChanges() {
+		return !changedUids.isEmpty();
+	}
+
+	/**
+	 * Returns and forgets UIDs of the sub steps that have gained their first or
+	 * lost their last overlap since the previous call. A sub step may have changed
+	 * back to its earlier state.
+	 */
+	public List<String> drainChangedUids() {
+		var result = new ArrayList<>(changedUids);
+		changedUids.clear();
+		return result;
+	}
+
+	private void addOverlap(String uid, String otherUid) {
+		overlapsByUid.computeIfAbsent(uid, key -> new HashSet<>()).add(otherUid);
+		var otherOverlaps = overlapsByUid.computeIfAbsent(otherUid, key -> new HashSet<>());
+		if (otherOverlaps.isEmpty()) {
+			changedUids.add(otherUid);
+		}
+		otherOverlaps.add(uid);
+	}
+
+	private void removeOverlaps(String uid) {
+		var overlaps = overlapsByUid.remove(uid);
+		if (overlaps == null) {
+			return;
+		}
+		for (String otherUid : overlaps) {
+			var otherOverlaps = overlapsByUid.get(otherUid);
+			if (otherOverlaps != null && otherOverlaps.remove(uid) && otherOverlaps.isEmpty()) {
+				overlapsByUid.remove(otherUid);
+				changedUids.add(otherUid);
+			}
+		}
+	}
+
+	private void removeFromOwner(String ownerUid, String uid) {
+		var intervals = intervalsByOwnerUid.get(ownerUid);
+		if (intervals != null) {
+			intervals.remove(uid);
+			if (intervals.size() == 0) {
+				intervalsByOwnerUid.remove(ownerUid);
+			}
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package org.vaadin.tltv.gantt.data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.model.GanttStep;
+import org.vaadin.tltv.gantt.model.Step;
+import org.vaadin.tltv.gantt.util.UidGenerator;
+
+/**
+ * Read-mostly row store that keeps steps in parallel primitive arrays instead
+ * of {@link Step} objects: start and end as epoch seconds, background color as
+ * an index to a shared palette, identifier as a primitive and caption as a
+ * reference. {@link #fetch(GanttQuery)} returns lightweight {@link Step} views
+ * over the arrays, so only the rows loaded into {@link Gantt} are backed by
+ * objects. Setters of a view write through to the store, so a change made
+ * through any view of a row is synchronized by {@link Gantt#refresh(String)}.
+ * <p>
+ * Rows can be appended and updated but not removed or reordered, as the UID of
+ * a row is derived from its position. Dates are stored with second precision.
+ * Other step fields, like style name and movable or resizable flags, are not
+ * stored and use the {@link GanttStep} defaults. Use with
+ * {@link Gantt#setDataProvider(GanttDataProvider)}.
+ * <p>
+ * A row takes about 32 bytes in the arrays, not counting its caption string.
+ * A view is still a full {@link Step} with the unused inherited fields, so on
+ * a 64-bit JVM with compressed references it takes about 72 bytes plus about
+ * 56 bytes for its UID string. Views are created on every {@link #get(int)}
+ * and {@link #fetch(GanttQuery)} call, so {@link Gantt} and its caption grid
+ * hold different views of the same row. The views are equal by UID and share
+ * the row state in the store. A row loaded into {@link Gantt} also costs its
+ * step element.
+ */
+public class ColumnarStepStore implements GanttDataProvider {
+
+	private static final long NO_DATE = Long.MIN_VALUE;
+	private static final int NO_COLOR = -1;
+
+	private String uidPrefix = newUidPrefix();
+	private final List<String> palette = new ArrayList<>();
+	private final Map<String, Integer> paletteIndexes = new HashMap<>();
+
+	private int size;
+	private long[] starts;
+	private long[] ends;
+	private long[] identifiers;
+	private final BitSet hasIdentifier = new BitSet();
+	private int[] colors;
+	private String[] captions;
+
+	public ColumnarStepStore() {
+		this(16);
+	}
+
+	/**
+	 * Constructs a new empty store with capacity for the given number of rows.
+	 */
+	public ColumnarStepStore(int initialCapacity) {
+		starts = new long[initialCapacity];
+		ends = new long[initialCapacity];
+		identifiers = new long[initialCapacity];
+		colors = new int[initialCapacity];
+		captions = new String[initialCapacity];
+	}
+
+	/**
+	 * Appends a row with the caption, background color, dates and identifier of
+	 * the given step. Given step object is not retained.
+	 *
+	 * @param step Source step
+	 * @return Zero based index of the new row
+	 */
+	public int add(GanttStep step) {
+		ensureCapacity(size + 1);
+		set(size, step.getCaption(), step.getBackgroundColor(), step.getStartDate(), step.getEndDate(),
+				step.getIdentifier());
+		return size++;
+	}
+
+	/**
+	 * Appends rows for all given steps in order.
+	 */
+	public void addAll(Collection<? extends GanttStep> steps) {
+		ensureCapacity(size + steps.size());
+		steps.forEach(this::add);
+	}
+
+	/**
+	 * Appends a row with the given values.
+	 *
+	 * @return Zero based index of the new row
+	 */
+	public int add(String caption, String backgroundColor, LocalDateTime start, LocalDateTime end) {
+		ensureCapacity(size + 1);
+		set(size, caption, backgroundColor, start, end, null);
+		return size++;
+	}
+
+	/**
+	 * Returns a {@link Step} view of the row at the given index.
+	 */
+	public Step get(int index) {
+		Objects.checkIndex(index, size);
+		return new StepView(index);
+	}
+
+	/**
+	 * Returns number of rows.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all rows. Views returned before this are no longer valid. Rows
+	 * added after this get new UIDs, so they don't match the step elements of
+	 * the removed rows.
+	 */
+	public void clear() {
+		Arrays.fill(captions, 0, size, null);
+		size = 0;
+		uidPrefix = newUidPrefix();
+		hasIdentifier.clear();
+		palette.clear();
+		paletteIndexes.clear();
+	}
+
+	/**
+	 * Reduces capacity of the arrays to the number of rows.
+	 */
+	public void trimToSize() {
+		resize(size);
+	}
+
+	@Override
+	public Stream<Step> fetch(GanttQuery query) {
+		int from = Math.min(query.getRowOffset(), size);
+		int to = (int) Math.min((long) from + query.getRowLimit(), size);
+		return IntStream.range(from, to).mapToObj(StepView::new);
+	}
+
+	@Override
+	public int size(GanttQuery query) {
+		return size;
+	}
+
+	private void set(int index, String caption, String backgroundColor, LocalDateTime start, LocalDateTime end,
+			Long identifier) {
+		captions[index] = caption;
+		colors[index] = toColorIndex(backgroundColor);
+		starts[index] = toEpochSecond(start);
+		ends[index] = toEpochSecond(end);
+		setIdentifier(index, identifier);
+	}
+
+	private void setIdentifier(int index, Long identifier) {
+		identifiers[index] = identifier != null ? identifier : 0;
+		hasIdentifier.set(index, identifier != null);
+	}
+
+	private static String newUidPrefix() {
+		return UidGenerator.randomBase62().nextUid() + "-";
+	}
+
+	private int toColorIndex(String color) {
+		if (color == null) {
+			return NO_COLOR;
+		}
+		return paletteIndexes.computeIfAbsent(color, c -> {
+			palette.add(c);
+			return palette.size() - 1;
+		});
+	}
+
+	private static long toEpochSecond(LocalDateTime dateTime) {
+		return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_DATE;
+	}
+
+	private static LocalDateTime toDateTime(long epochSecond) {
+		return epochSecond != NO_DATE ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > starts.length) {
+			resize(Math.max(capacity, starts.length + (starts.length >> 1) + 1));
+		}
+	}
+
+	private void resize(int capacity) {
+		starts = Arrays.copyOf(starts, capacity);
+		ends = Arrays.copyOf(ends, capacity);
+		identifiers = Arrays.copyOf(identifiers, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		captions = Arrays.copyOf(captions, capacity);
+	}
+
+	/**
+	 * {@link Step} reading and writing the fields stored in the arrays.
+	 */
+	private class StepView extends Step {
+
+		private final int index;
+
+		private StepView(int index) {
+			this.index = index;
+			setUid(uidPrefix + UidGenerator.toBase62(index));
+		}
+
+		@Override
+		public String getCaption() {
+			return captions[index];
+		}
+
+		@Override
+		public void setCaption(String caption) {
+			captions[index] = caption;
+		}
+
+		@Override
+		public String getBackgroundColor() {
+			int color = colors[index];
+			return color != NO_COLOR ? palette.get(color) : null;
+		}
+
+		@Override
+		public void setBackgroundColor(String backgroundColor) {
+			colors[index] = toColorIndex(backgroundColor);
+		}
+
+		@Override
+		public LocalDateTime getStartDate() {
+			return toDateTime(starts[index]);
+		}
+
+		@Override
+		public void setStartDate(LocalDateTime startDate) {
+			starts[index] = toEpochSecond(startDate);
+		}
+
+		@Override
+		public LocalDateTime getEndDate() {
+			return toDateTime(ends[index]);
+		}
+
+		@Override
+		public void setEndDate(LocalDateTime endDate) {
+			ends[index] = toEpochSecond(endDate);
+		}
+
+		@Override
+		public Long getIdentifier() {
+			return hasIdentifier.get(index) ? identifiers[index] : null;
+		}
+
+		@Override
+		public void setIdentifier(Long identifier) {
+			ColumnarStepStore.this.setIdentifier(index, identifier);
+		}
+	}
+}
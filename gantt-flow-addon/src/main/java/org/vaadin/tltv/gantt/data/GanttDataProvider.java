@@ -0,0 +1,34 @@
+package org.vaadin.tltv.gantt.data;
+
+import java.io.Serializable;
+import java.util.stream.Stream;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.model.Step;
+
+/**
+ * Backend for the rows of a {@link Gantt}. Gantt fetches only the rows it needs
+ * to draw, and the caption grid built with {@link Gantt#buildCaptionGrid(String)}
+ * pages over the same backend. See {@link Gantt#setDataProvider(GanttDataProvider)}.
+ */
+public interface GanttDataProvider extends Serializable {
+
+	/**
+	 * Fetches steps for the row range of the given query. Returned steps are in
+	 * row order starting from {@link GanttQuery#getRowOffset()}, at most
+	 * {@link GanttQuery#getRowLimit()} of them. Returned steps should keep their
+	 * UID between the fetches.
+	 * 
+	 * @param query Query with the row range and the visible date range
+	 * @return Stream of steps
+	 */
+	Stream<Step> fetch(GanttQuery query);
+
+	/**
+	 * Returns total number of rows available in the backend.
+	 * 
+	 * @param query Query with the visible date range
+	 * @return Number of rows
+	 */
+	int size(GanttQuery query);
+}
@@ -0,0 +1,62 @@
+package org.vaadin.tltv.gantt.data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import org.vaadin.tltv.gantt.Gantt;
+
+/**
+ * Immutable query object used to request steps from a
+ * {@link GanttDataProvider}. Contains the requested row range and the visible
+ * date range of the {@link Gantt} timeline.
+ */
+public class GanttQuery implements Serializable {
+
+	private final int rowOffset;
+	private final int rowLimit;
+	private final LocalDateTime visibleStart;
+	private final LocalDateTime visibleEnd;
+
+	/**
+	 * Constructs a new query for the given row range and visible date range.
+	 * 
+	 * @param rowOffset    Zero based index of the first requested row
+	 * @param rowLimit     Maximum number of requested rows
+	 * @param visibleStart Inclusive start of the visible date range
+	 * @param visibleEnd   Inclusive end of the visible date range
+	 */
+	public GanttQuery(int rowOffset, int rowLimit, LocalDateTime visibleStart, LocalDateTime visibleEnd) {
+		this.rowOffset = rowOffset;
+		this.rowLimit = rowLimit;
+		this.visibleStart = visibleStart;
+		this.visibleEnd = visibleEnd;
+	}
+
+	/**
+	 * Returns zero based index of the first requested row.
+	 */
+	public int getRowOffset() {
+		return rowOffset;
+	}
+
+	/**
+	 * Returns maximum number of requested rows.
+	 */
+	public int getRowLimit() {
+		return rowLimit;
+	}
+
+	/**
+	 * Returns inclusive start of the visible date range.
+	 */
+	public LocalDateTime getVisibleStart() {
+		return visibleStart;
+	}
+
+	/**
+	 * Returns inclusive end of the visible date range.
+	 */
+	public LocalDateTime getVisibleEnd() {
+		return visibleEnd;
+	}
+}
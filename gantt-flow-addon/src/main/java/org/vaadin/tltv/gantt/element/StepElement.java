@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -28,23 +29,68 @@ public class StepElement extends Component implements HasComponents {
 	
 	private GanttStep model;
 	
-	private final List<BiConsumer<ContextMenu, String>> contextMenuBuilders = new ArrayList<>();
-	private final List<Registration> contextMenuDomListenerRegistrations = new ArrayList<>();
-	private final List<Tooltip> tooltips = new ArrayList<>();
+	// allocated on the first context menu or tooltip
+	private List<BiConsumer<ContextMenu, String>> contextMenuBuilders;
+	private List<Registration> contextMenuDomListenerRegistrations;
+	private List<Tooltip> tooltips;
+
+	private boolean compactDates;
+
+	// values last written to the attributes, by refresh or by the setters
+	private String syncedCaption;
+	private String syncedBackgroundColor;
+	private LocalDateTime syncedStartDate;
+	private LocalDateTime syncedEndDate;
 	
 	public StepElement(GanttStep model) {
+		this(model, false);
+	}
+
+	/**
+	 * Creates a new element for the given model.
+	 * 
+	 * @param model        Step model, not null
+	 * @param compactDates Write dates in compact form, see
+	 *                     {@link #setCompactDates(boolean)}
+	 */
+	public StepElement(GanttStep model, boolean compactDates) {
 		this.model = model;
 		this.uid = model.getUid();
+		this.compactDates = compactDates;
 		
 		getElement().setProperty("uid", this.uid);
-		refresh();
+		refresh(true);
 	}
 	
+	/**
+	 * Updates the element by the model fields that differ from the values last
+	 * written to this element, either by a refresh or by the setters like
+	 * {@link #setCaption(String)}. Unchanged attributes are not written again.
+	 */
 	public void refresh() {
-		setCaption(model.getCaption());
-		setBackgroundColor(model.getBackgroundColor());
-		setStartDateTime(model.getStartDate());
-		setEndDateTime(model.getEndDate());
+		refresh(false);
+	}
+
+	/**
+	 * Updates the element by the model.
+	 * 
+	 * @param force <code>true</code> to write all attributes, <code>false</code>
+	 *              to write only the ones that differ from the values last
+	 *              written to this element
+	 */
+	public void refresh(boolean force) {
+		if (force || !Objects.equals(syncedCaption, model.getCaption())) {
+			setCaption(model.getCaption());
+		}
+		if (force || !Objects.equals(syncedBackgroundColor, model.getBackgroundColor())) {
+			setBackgroundColor(model.getBackgroundColor());
+		}
+		if (force || !Objects.equals(syncedStartDate, model.getStartDate())) {
+			setStartDateTime(model.getStartDate());
+		}
+		if (force || !Objects.equals(syncedEndDate, model.getEndDate())) {
+			setEndDateTime(model.getEndDate());
+		}
 	}
 	
 	public String getUid() {
@@ -55,8 +101,23 @@ public class StepElement extends Component implements HasComponents {
 		return model;
 	}
 
+	/**
+	 * Replaces model of this element with the given model that has the same UID.
+	 * Call {@link #refresh()} to update the element by the fields of the new model
+	 * that differ from the element.
+	 * 
+	 * @param model New model with the same UID, not null
+	 */
+	public void setModel(GanttStep model) {
+		if (!Objects.equals(uid, model.getUid())) {
+			throw new IllegalArgumentException("Model UID must match with the element UID " + uid);
+		}
+		this.model = model;
+	}
+
 	public void setCaption(String caption) {
 		getElement().setAttribute("caption", caption);
+		syncedCaption = caption;
 	}
 	
 	public String getCaption() {
@@ -65,15 +126,33 @@ public class StepElement extends Component implements HasComponents {
 	
 	public void setBackgroundColor(String backgroundColor) {
 		getElement().setAttribute("backgroundColor", backgroundColor);
+		syncedBackgroundColor = backgroundColor;
 	}
 	
 	public String getBackgroundColor() {
 		return getElement().getAttribute("backgroundColor");
 	}
 	
+	/**
+	 * Sets whether start and end are written in the shortest exact form
+	 * <code>yyyy-MM-dd</code> or <code>yyyy-MM-ddTHH</code> instead of
+	 * <code>yyyy-MM-ddTHH:mm:ss</code>.
+	 */
+	public void setCompactDates(boolean compactDates) {
+		if (this.compactDates != compactDates) {
+			this.compactDates = compactDates;
+			setStartDateTime(syncedStartDate);
+			setEndDateTime(syncedEndDate);
+		}
+	}
+
+	public boolean isCompactDates() {
+		return compactDates;
+	}
+
 	public void setStartDateTime(LocalDateTime startDateTime) {
-		getElement().setAttribute("start",
-				GanttUtil.formatDateTime(GanttUtil.resetTimeToMin(startDateTime, Resolution.Hour)));
+		getElement().setAttribute("start", formatDateTime(startDateTime));
+		syncedStartDate = startDateTime;
 	}
 
 	public LocalDateTime getStartDateTime() {
@@ -81,19 +160,26 @@ public class StepElement extends Component implements HasComponents {
 	}
 
 	public void setEndDateTime(LocalDateTime endDateTime) {
-		getElement().setAttribute("end",
-				GanttUtil.formatDateTime(GanttUtil.resetTimeToMin(endDateTime, Resolution.Hour)));
+		getElement().setAttribute("end", formatDateTime(endDateTime));
+		syncedEndDate = endDateTime;
 	}
 
 	public LocalDateTime getEndDateTime() {
 		return GanttUtil.parseLocalDateTime(getElement().getAttribute("end"));
 	}
 
+	private String formatDateTime(LocalDateTime dateTime) {
+		var truncated = GanttUtil.resetTimeToMin(dateTime, Resolution.Hour);
+		return compactDates ? GanttUtil.formatCompactDateTime(truncated) : GanttUtil.formatDateTime(truncated);
+	}
+
 	/**
 	 * Remove element from the parent and clear all context menu listeners ({@link #getContextMenuBuilders()}).
 	 */
 	public void removeFromParent() {
-		contextMenuDomListenerRegistrations.forEach(Registration::remove);
+		if (contextMenuDomListenerRegistrations != null) {
+			contextMenuDomListenerRegistrations.forEach(Registration::remove);
+		}
 		getElement().removeFromParent();
 	}
 	
@@ -105,6 +191,10 @@ public class StepElement extends Component implements HasComponents {
 	 *                build and target step's UID.
 	 */
 	public void addContextMenu(BiConsumer<ContextMenu, String> builder) {
+		if (contextMenuBuilders == null) {
+			contextMenuBuilders = new ArrayList<>();
+			contextMenuDomListenerRegistrations = new ArrayList<>();
+		}
 		this.contextMenuBuilders.add(builder);
 		ContextMenu contextMenu = new ContextMenu();
 		contextMenu.setTarget(this);
@@ -122,9 +212,20 @@ public class StepElement extends Component implements HasComponents {
 	}
 	
 	public List<BiConsumer<ContextMenu, String>> getContextMenuBuilders() {
+		if (contextMenuBuilders == null) {
+			return new ArrayList<>();
+		}
 		return contextMenuBuilders.stream().collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns true if this step has own context menu builders added with
+	 * {@link #addContextMenu(BiConsumer)}.
+	 */
+	public boolean hasContextMenu() {
+		return contextMenuBuilders != null && !contextMenuBuilders.isEmpty();
+	}
+
 	/** Create and return new Tooltip instance attached to this step. */
 	public Tooltip addTooltip() {
 		return addTooltip((String) null);
@@ -134,6 +235,9 @@ public class StepElement extends Component implements HasComponents {
 	public Tooltip addTooltip(String text) {
 		var tooltip = Tooltip.forComponent(this).withText(text);
 		tooltip.setPosition(Tooltip.TooltipPosition.TOP_START);
+		if (tooltips == null) {
+			tooltips = new ArrayList<>();
+		}
 		tooltips.add(tooltip);
         return tooltip;	
 	}
@@ -151,6 +255,9 @@ public class StepElement extends Component implements HasComponents {
 
 	/** Return all tooltips added to this step with addTooltip methods. */
 	public List<Tooltip> getTooltips() {
+		if (tooltips == null) {
+			return Collections.emptyList();
+		}
 		return Collections.unmodifiableList(this.tooltips);
 	}
 }
@@ -1,8 +1,10 @@
 package org.vaadin.tltv.gantt.event;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.model.GanttStep;
 import org.vaadin.tltv.gantt.util.GanttUtil;
 
 import com.vaadin.flow.component.ComponentEvent;
@@ -14,7 +16,8 @@ public class GanttClickEvent extends ComponentEvent<Gantt> {
 
 	private final Integer index;
 	private final Integer button;
-	private final LocalDateTime date;
+	private final String dateText;
+	private LocalDateTime date;
 	
 	public GanttClickEvent(Gantt source, boolean fromClient, 
 			@EventData("event.detail.index") Integer index,
@@ -23,7 +26,7 @@ public class GanttClickEvent extends ComponentEvent<Gantt> {
 		super(source, fromClient);
 		this.index = index;
 		this.button = button;
-		this.date = GanttUtil.parseLocalDateTime(date);
+		this.dateText = date;
 	}
 
 	public Integer getIndex() {
@@ -34,7 +37,31 @@ public class GanttClickEvent extends ComponentEvent<Gantt> {
 		return button;
 	}
 	
+	/**
+	 * Returns clicked date and time. Parsed on the first call.
+	 */
 	public LocalDateTime getDate() {
+		if (date == null) {
+			date = GanttUtil.parseLocalDateTime(dateText);
+		}
 		return date;
 	}
+
+	/**
+	 * Returns steps and sub-steps at the clicked date time in any row. See
+	 * {@link Gantt#getStepsAt(LocalDateTime)}.
+	 */
+	public List<GanttStep> getStepsAtDate() {
+		return getSource().getStepsAt(getDate());
+	}
+
+	/**
+	 * Returns steps and sub-steps at the clicked date time in the clicked row.
+	 */
+	public List<GanttStep> getStepsUnderCursor() {
+		if (index == null) {
+			return List.of();
+		}
+		return getStepsAtDate().stream().filter(step -> getSource().indexOf(step.getUid()) == index).toList();
+	}
 }
@@ -1,5 +1,7 @@
 package org.vaadin.tltv.gantt.event;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.vaadin.tltv.gantt.Gantt;
@@ -13,24 +15,66 @@ import com.vaadin.flow.component.ComponentEvent;
 public class GanttDataChangeEvent extends ComponentEvent<Gantt> {
 
 	public static enum DataEvent {
-		STEP_ADD, STEP_REMOVE, STEP_MOVE;
+		STEP_ADD, STEP_REMOVE, STEP_MOVE,
+		/**
+		 * Multiple coalesced changes, see {@link GanttDataChangeEvent#getChanges()}
+		 * and {@link Gantt#setCoalesceDataChangeEvents(boolean)}.
+		 */
+		BATCH;
 	}
 
 	private final DataEvent dataEvent;
-	private final Stream<Step> steps;
+	private final List<Step> steps;
+	private final List<GanttDataChangeEvent> changes;
 
 	
 	public GanttDataChangeEvent(Gantt source, DataEvent dataEvent, Stream<Step> steps) {
+		this(source, dataEvent, steps.toList());
+	}
+
+	public GanttDataChangeEvent(Gantt source, DataEvent dataEvent, List<Step> steps) {
 		super(source, false);
 		this.dataEvent = dataEvent;
-		this.steps = steps;
+		this.steps = Collections.unmodifiableList(steps);
+		this.changes = List.of(this);
+	}
+
+	/**
+	 * Constructs a {@link DataEvent#BATCH} event of the given changes.
+	 * 
+	 * @param source  Source Gantt
+	 * @param changes Changes in the order they happened
+	 */
+	public GanttDataChangeEvent(Gantt source, List<GanttDataChangeEvent> changes) {
+		super(source, false);
+		this.dataEvent = DataEvent.BATCH;
+		this.changes = List.copyOf(changes);
+		this.steps = changes.stream().flatMap(GanttDataChangeEvent::getSteps).toList();
 	}
 
 	public DataEvent getDataEvent() {
 		return dataEvent;
 	}
 
+	/**
+	 * Returns a new stream of the changed steps on every call.
+	 */
 	public Stream<Step> getSteps() {
+		return steps.stream();
+	}
+
+	/**
+	 * Returns unmodifiable list of the changed steps.
+	 */
+	public List<Step> getStepsList() {
 		return steps;
 	}
+
+	/**
+	 * Returns changes of a {@link DataEvent#BATCH} event in the order they
+	 * happened. For other events returns a list of this event.
+	 */
+	public List<GanttDataChangeEvent> getChanges() {
+		return changes;
+	}
 }
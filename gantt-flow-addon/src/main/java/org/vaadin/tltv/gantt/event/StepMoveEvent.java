@@ -15,8 +15,12 @@ public class StepMoveEvent extends ComponentEvent<Gantt> {
 
 	private final String uid;
 	private final String newUid;
-	private final LocalDateTime start;
-	private final LocalDateTime end;
+	// dates are parsed and step is resolved on the first call
+	private final String startText;
+	private final String endText;
+	private LocalDateTime start;
+	private LocalDateTime end;
+	private GanttStep anyStep;
 	
 	public StepMoveEvent(Gantt source, boolean fromClient, 
 			@EventData("event.detail.uid") String uid,
@@ -26,8 +30,8 @@ public class StepMoveEvent extends ComponentEvent<Gantt> {
 		super(source, fromClient);
 		this.uid = uid;
 		this.newUid = newUid;
-		this.start = GanttUtil.parseLocalDateTime(start);
-		this.end = GanttUtil.parseLocalDateTime(end);
+		this.startText = start;
+		this.endText = end;
 	}
 
 	/**
@@ -36,14 +40,23 @@ public class StepMoveEvent extends ComponentEvent<Gantt> {
 	 * @return {@link GanttStep}
 	 */
 	public GanttStep getAnyStep() {
-		return getSource().getAnyStep(uid);
+		if (anyStep == null) {
+			anyStep = getSource().getAnyStep(uid);
+		}
+		return anyStep;
 	}
 	
 	public LocalDateTime getStart() {
+		if (start == null) {
+			start = GanttUtil.parseLocalDateTime(startText);
+		}
 		return start;
 	}
 	
 	public LocalDateTime getEnd() {
+		if (end == null) {
+			end = GanttUtil.parseLocalDateTime(endText);
+		}
 		return end;
 	}
 	
@@ -14,8 +14,12 @@ import com.vaadin.flow.component.EventData;
 public class StepResizeEvent extends ComponentEvent<Gantt> {
 
 	private final String uid;
-	private final LocalDateTime start;
-	private final LocalDateTime end;
+	// dates are parsed and step is resolved on the first call
+	private final String startText;
+	private final String endText;
+	private LocalDateTime start;
+	private LocalDateTime end;
+	private GanttStep anyStep;
 	
 	public StepResizeEvent(Gantt source, boolean fromClient, 
 			@EventData("event.detail.uid") String uid,
@@ -23,19 +27,28 @@ public class StepResizeEvent extends ComponentEvent<Gantt> {
 			@EventData("event.detail.end") String end) {
 		super(source, fromClient);
 		this.uid = uid;
-		this.start = GanttUtil.parseLocalDateTime(start);
-		this.end = GanttUtil.parseLocalDateTime(end);
+		this.startText = start;
+		this.endText = end;
 	}
 
 	public GanttStep getAnyStep() {
-		return getSource().getAnyStep(uid);
+		if (anyStep == null) {
+			anyStep = getSource().getAnyStep(uid);
+		}
+		return anyStep;
 	}
 	
 	public LocalDateTime getStart() {
+		if (start == null) {
+			start = GanttUtil.parseLocalDateTime(startText);
+		}
 		return start;
 	}
 	
 	public LocalDateTime getEnd() {
+		if (end == null) {
+			end = GanttUtil.parseLocalDateTime(endText);
+		}
 		return end;
 	}
 }
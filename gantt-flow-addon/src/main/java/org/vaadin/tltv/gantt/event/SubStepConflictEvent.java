@@ -0,0 +1,41 @@
+package org.vaadin.tltv.gantt.event;
+
+import java.util.List;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.model.SubStep;
+
+import com.vaadin.flow.component.ComponentEvent;
+
+/**
+ * Event that is fired once per server round-trip when sub steps of the same
+ * owner step have started or stopped overlapping each other. See
+ * {@link Gantt#setSubStepConflictDetection(boolean)}.
+ */
+public class SubStepConflictEvent extends ComponentEvent<Gantt> {
+
+	private final List<SubStep> conflictingSubSteps;
+	private final List<SubStep> resolvedSubSteps;
+
+	public SubStepConflictEvent(Gantt source, List<SubStep> conflictingSubSteps, List<SubStep> resolvedSubSteps) {
+		super(source, false);
+		this.conflictingSubSteps = List.copyOf(conflictingSubSteps);
+		this.resolvedSubSteps = List.copyOf(resolvedSubSteps);
+	}
+
+	/**
+	 * Returns sub steps that have started to overlap another sub step of the
+	 * same owner.
+	 */
+	public List<SubStep> getConflictingSubSteps() {
+		return conflictingSubSteps;
+	}
+
+	/**
+	 * Returns sub steps that no longer overlap any other sub step of the same
+	 * owner.
+	 */
+	public List<SubStep> getResolvedSubSteps() {
+		return resolvedSubSteps;
+	}
+}
@@ -0,0 +1,73 @@
+package org.vaadin.tltv.gantt.event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.vaadin.tltv.gantt.Gantt;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DebounceSettings;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+import com.vaadin.flow.dom.DebouncePhase;
+
+/**
+ * Event that is fired when the visible row range or the visible part of the
+ * timeline changes in the client, for example when the chart is scrolled.
+ * Reported only for virtualized Gantt, see {@link Gantt#setVirtualized(boolean)}.
+ */
+@DomEvent(value = "ganttVisibleRangeChange", debounce = @DebounceSettings(timeout = 100, phases = DebouncePhase.TRAILING))
+public class VisibleRangeChangeEvent extends ComponentEvent<Gantt> {
+
+	private final int firstRow;
+	private final int lastRow;
+	private final double left;
+	private final double right;
+
+	public VisibleRangeChangeEvent(Gantt source, boolean fromClient,
+			@EventData("event.detail.first") int firstRow,
+			@EventData("event.detail.last") int lastRow,
+			@EventData("event.detail.left") double left,
+			@EventData("event.detail.right") double right) {
+		super(source, fromClient);
+		this.firstRow = firstRow;
+		this.lastRow = lastRow;
+		this.left = left;
+		this.right = right;
+	}
+
+	/**
+	 * Returns zero based index of the first visible row.
+	 */
+	public int getFirstRow() {
+		return firstRow;
+	}
+
+	/**
+	 * Returns zero based index of the last visible row, inclusive.
+	 */
+	public int getLastRow() {
+		return lastRow;
+	}
+
+	/**
+	 * Returns start of the visible part of the timeline.
+	 */
+	public LocalDateTime getVisibleStart() {
+		return toDateTime(left);
+	}
+
+	/**
+	 * Returns end of the visible part of the timeline.
+	 */
+	public LocalDateTime getVisibleEnd() {
+		return toDateTime(right);
+	}
+
+	private LocalDateTime toDateTime(double position) {
+		LocalDateTime start = getSource().getStartDateTime();
+		LocalDateTime end = getSource().getEndDateTime();
+		long seconds = Duration.between(start, end).getSeconds();
+		return start.plusSeconds(Math.round(seconds * Math.max(0, Math.min(1, position))));
+	}
+}
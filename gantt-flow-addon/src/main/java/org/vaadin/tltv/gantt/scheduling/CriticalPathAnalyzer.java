@@ -0,0 +1,435 @@
+package org.vaadin.tltv.gantt.scheduling;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.event.GanttDataChangeEvent;
+import org.vaadin.tltv.gantt.event.StepMoveEvent;
+import org.vaadin.tltv.gantt.event.StepResizeEvent;
+import org.vaadin.tltv.gantt.model.GanttStep;
+import org.vaadin.tltv.gantt.model.Step;
+import org.vaadin.tltv.gantt.model.SubStep;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Critical path of the {@link Gantt} steps linked by
+ * {@link Step#getPredecessor()} as finish-to-start dependencies. Earliest and
+ * latest start and total float of each step are computed with a forward and a
+ * backward pass over primitive arrays in linear time. A step without a
+ * predecessor starts at its start date, other steps as soon as their
+ * predecessor ends. Steps without dates have zero duration.
+ * <p>
+ * Critical steps, the ones with zero total float, are marked with
+ * {@link #getCriticalStyleName()} class name on their
+ * {@link org.vaadin.tltv.gantt.element.StepElement} without refreshing the
+ * elements. After a step is moved or resized, only its downstream steps and its
+ * predecessors are recalculated unless the plan end changes. Added and removed
+ * steps recalculate everything. Call {@link #recalculate()} after changing
+ * predecessor of an existing step and {@link #update(Step)} after changing
+ * dates of a step on the server side.
+ * <p>
+ * Steps are kept by UID, so steps replaced with
+ * {@link Gantt#setSteps(java.util.Collection)} are resolved from the Gantt. If
+ * predecessors of the steps form a cycle, nothing is calculated and
+ * {@link #hasCycle()} returns true until the next recalculation.
+ *
+ * @see DependencyScheduler
+ */
+public class CriticalPathAnalyzer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String DEFAULT_CRITICAL_STYLE_NAME = "critical";
+
+	private static final int NONE = -1;
+
+	private final Gantt gantt;
+	private final List<Registration> registrations = new ArrayList<>();
+	private String criticalStyleName = DEFAULT_CRITICAL_STYLE_NAME;
+
+	private final Map<String, Integer> indexesByUid = new HashMap<>();
+	private String[] uids = new String[0];
+	private long[] starts = new long[0];
+	private long[] durations = new long[0];
+	private int[] predecessors = new int[0];
+	// successors of step i are successors[successorOffsets[i]] until successorOffsets[i + 1]
+	private int[] successorOffsets = new int[1];
+	private int[] successors = new int[0];
+	private int[] topologicalOrder = new int[0];
+	private long[] earliestStarts = new long[0];
+	private long[] latestFinishes = new long[0];
+	private boolean[] critical = new boolean[0];
+	private long end;
+	private boolean cycle;
+
+	/**
+	 * Creates an analyzer for the given Gantt, calculates critical path and starts
+	 * listening to step move, resize and data change events.
+	 *
+	 * @param gantt Target Gantt, not null
+	 */
+	public CriticalPathAnalyzer(Gantt gantt) {
+		this.gantt = Objects.requireNonNull(gantt);
+		recalculate();
+		registrations.add(gantt.addStepMoveListener(this::onStepMove));
+		registrations.add(gantt.addStepResizeListener(this::onStepResize));
+		registrations.add(gantt.addDataChangeListener(this::onDataChange));
+	}
+
+	/**
+	 * Stops listening to the Gantt events and removes the critical style name from
+	 * the step elements.
+	 */
+	public void remove() {
+		registrations.forEach(Registration::remove);
+		registrations.clear();
+		for (int i = 0; i < uids.length; i++) {
+			if (critical[i]) {
+				markCritical(i, false);
+			}
+		}
+	}
+
+	/**
+	 * Sets class name of the critical step elements. Default is
+	 * {@link #DEFAULT_CRITICAL_STYLE_NAME}.
+	 *
+	 * @param criticalStyleName Class name, not null
+	 */
+	public void setCriticalStyleName(String criticalStyleName) {
+		Objects.requireNonNull(criticalStyleName);
+		for (int i = 0; i < uids.length; i++) {
+			if (critical[i]) {
+				markCritical(i, false);
+			}
+		}
+		this.criticalStyleName = criticalStyleName;
+		for (int i = 0; i < uids.length; i++) {
+			if (critical[i]) {
+				markCritical(i, true);
+			}
+		}
+	}
+
+	public String getCriticalStyleName() {
+		return criticalStyleName;
+	}
+
+	/**
+	 * Rebuilds dependencies from the current steps and recalculates all of them.
+	 * If predecessors of the steps form a cycle, all steps are left without
+	 * results. See {@link #hasCycle()}.
+	 */
+	public void recalculate() {
+		for (int i = 0; i < uids.length; i++) {
+			if (critical[i]) {
+				markCritical(i, false);
+			}
+		}
+		build(gantt.getStepsList());
+		forwardPass();
+		end = calculateEnd();
+		backwardPass();
+	}
+
+	/**
+	 * Returns true if predecessors of the steps formed a cycle on the latest
+	 * recalculation. No step has results then.
+	 */
+	public boolean hasCycle() {
+		return cycle;
+	}
+
+	/**
+	 * Recalculates after start or end date of the given step has changed. Only
+	 * steps depending on it and its predecessors are visited unless the plan end
+	 * changes.
+	 */
+	public void update(Step step) {
+		update(step, step.getStartDate(), step.getEndDate());
+	}
+
+	/**
+	 * Returns the earliest start of the given step or null if it's not known.
+	 */
+	public LocalDateTime getEarliestStart(Step step) {
+		int i = indexOf(step);
+		return i != NONE ? toDateTime(earliestStarts[i]) : null;
+	}
+
+	/**
+	 * Returns the earliest finish of the given step or null if it's not known.
+	 */
+	public LocalDateTime getEarliestFinish(Step step) {
+		int i = indexOf(step);
+		return i != NONE ? toDateTime(earliestStarts[i] + durations[i]) : null;
+	}
+
+	/**
+	 * Returns the latest start of the given step or null if it's not known.
+	 */
+	public LocalDateTime getLatestStart(Step step) {
+		int i = indexOf(step);
+		return i != NONE ? toDateTime(latestFinishes[i] - durations[i]) : null;
+	}
+
+	/**
+	 * Returns the latest finish of the given step or null if it's not known.
+	 */
+	public LocalDateTime getLatestFinish(Step step) {
+		int i = indexOf(step);
+		return i != NONE ? toDateTime(latestFinishes[i]) : null;
+	}
+
+	/**
+	 * Returns how much the given step can be delayed without delaying the plan
+	 * end, or null if the step is not known.
+	 */
+	public Duration getTotalFloat(Step step) {
+		int i = indexOf(step);
+		return i != NONE ? Duration.ofSeconds(totalFloat(i)) : null;
+	}
+
+	/**
+	 * Returns true if the given step is on the critical path.
+	 */
+	public boolean isCritical(Step step) {
+		int i = indexOf(step);
+		return i != NONE && critical[i];
+	}
+
+	/**
+	 * Returns critical steps in the row order.
+	 */
+	public List<Step> getCriticalSteps() {
+		List<Step> result = new ArrayList<>();
+		for (int i = 0; i < uids.length; i++) {
+			var step = critical[i] ? gantt.getStep(uids[i]) : null;
+			if (step != null) {
+				result.add(step);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the earliest end of the plan or null if there are no steps.
+	 */
+	public LocalDateTime getEnd() {
+		return uids.length > 0 ? toDateTime(end) : null;
+	}
+
+	private void build(List<Step> stepList) {
+		int n = stepList.size();
+		cycle = false;
+		indexesByUid.clear();
+		uids = new String[n];
+		starts = new long[n];
+		durations = new long[n];
+		predecessors = new int[n];
+		earliestStarts = new long[n];
+		latestFinishes = new long[n];
+		critical = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			uids[i] = stepList.get(i).getUid();
+			indexesByUid.put(uids[i], i);
+		}
+		successorOffsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			var step = stepList.get(i);
+			setDates(i, step.getStartDate(), step.getEndDate());
+			var predecessor = step.getPredecessor();
+			Integer p = predecessor != null ? indexesByUid.get(predecessor.getUid()) : null;
+			predecessors[i] = p != null ? p : NONE;
+			if (p != null) {
+				successorOffsets[p + 1]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			successorOffsets[i + 1] += successorOffsets[i];
+		}
+		successors = new int[successorOffsets[n]];
+		var fill = Arrays.copyOf(successorOffsets, n);
+		for (int i = 0; i < n; i++) {
+			if (predecessors[i] != NONE) {
+				successors[fill[predecessors[i]]++] = i;
+			}
+		}
+		// breadth first from the steps without a predecessor
+		topologicalOrder = new int[n];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (predecessors[i] == NONE) {
+				topologicalOrder[count++] = i;
+			}
+		}
+		for (int head = 0; head < count; head++) {
+			int i = topologicalOrder[head];
+			for (int s = successorOffsets[i]; s < successorOffsets[i + 1]; s++) {
+				topologicalOrder[count++] = successors[s];
+			}
+		}
+		if (count < n) {
+			build(List.of());
+			cycle = true;
+		}
+	}
+
+	private void forwardPass() {
+		for (int i : topologicalOrder) {
+			earliestStarts[i] = earliestStartByPredecessor(i);
+		}
+	}
+
+	private void backwardPass() {
+		for (int k = topologicalOrder.length - 1; k >= 0; k--) {
+			int i = topologicalOrder[k];
+			latestFinishes[i] = latestFinishBySuccessors(i);
+			updateCritical(i);
+		}
+	}
+
+	private void update(GanttStep anyStep, LocalDateTime startDate, LocalDateTime endDate) {
+		int i = indexOf(toStep(anyStep));
+		if (i == NONE) {
+			return;
+		}
+		if (anyStep instanceof SubStep subStep) {
+			startDate = subStep.getOwner().getStartDate();
+			endDate = subStep.getOwner().getEndDate();
+		}
+		setDates(i, startDate, endDate);
+
+		// forward for the step and its downstream steps, tracking the touched ones
+		var touched = new int[16];
+		int count = 0;
+		touched[count++] = i;
+		boolean endMayChange = false;
+		for (int head = 0; head < count; head++) {
+			int j = touched[head];
+			long oldFinish = earliestStarts[j] + durations[j];
+			earliestStarts[j] = earliestStartByPredecessor(j);
+			long finish = earliestStarts[j] + durations[j];
+			endMayChange |= finish > this.end || (oldFinish == this.end && finish != oldFinish);
+			int successorCount = successorOffsets[j + 1] - successorOffsets[j];
+			if (count + successorCount > touched.length) {
+				touched = Arrays.copyOf(touched, Math.max(touched.length * 2, count + successorCount));
+			}
+			for (int s = successorOffsets[j]; s < successorOffsets[j + 1]; s++) {
+				touched[count++] = successors[s];
+			}
+		}
+		long newEnd = endMayChange ? calculateEnd() : this.end;
+		if (newEnd != this.end) {
+			this.end = newEnd;
+			backwardPass();
+			return;
+		}
+		// latest finish of the downstream steps depends only on the unchanged end
+		// and their durations, so backward only for the step and its predecessors
+		for (int j = i; j != NONE; j = predecessors[j]) {
+			long latestFinish = latestFinishBySuccessors(j);
+			if (j != i && latestFinish == latestFinishes[j]) {
+				break;
+			}
+			latestFinishes[j] = latestFinish;
+			updateCritical(j);
+		}
+		for (int k = 1; k < count; k++) {
+			updateCritical(touched[k]);
+		}
+	}
+
+	private long earliestStartByPredecessor(int i) {
+		int p = predecessors[i];
+		return p != NONE ? earliestStarts[p] + durations[p] : starts[i];
+	}
+
+	private long latestFinishBySuccessors(int i) {
+		int from = successorOffsets[i];
+		int to = successorOffsets[i + 1];
+		if (from == to) {
+			return end;
+		}
+		long latestFinish = Long.MAX_VALUE;
+		for (int s = from; s < to; s++) {
+			int j = successors[s];
+			latestFinish = Math.min(latestFinish, latestFinishes[j] - durations[j]);
+		}
+		return latestFinish;
+	}
+
+	private long calculateEnd() {
+		long result = Long.MIN_VALUE;
+		for (int i = 0; i < uids.length; i++) {
+			result = Math.max(result, earliestStarts[i] + durations[i]);
+		}
+		return result;
+	}
+
+	private long totalFloat(int i) {
+		return latestFinishes[i] - durations[i] - earliestStarts[i];
+	}
+
+	private void updateCritical(int i) {
+		boolean isCritical = totalFloat(i) == 0;
+		if (critical[i] != isCritical) {
+			critical[i] = isCritical;
+			markCritical(i, isCritical);
+		}
+	}
+
+	private void markCritical(int i, boolean isCritical) {
+		gantt.getStepElementOptional(uids[i])
+				.ifPresent(stepElement -> stepElement.getElement().getClassList().set(criticalStyleName, isCritical));
+	}
+
+	private void setDates(int i, LocalDateTime startDate, LocalDateTime endDate) {
+		starts[i] = startDate != null ? toEpochSecond(startDate) : 0;
+		durations[i] = startDate != null && endDate != null ? Math.max(0, toEpochSecond(endDate) - starts[i]) : 0;
+	}
+
+	private int indexOf(Step step) {
+		return step != null ? indexesByUid.getOrDefault(step.getUid(), NONE) : NONE;
+	}
+
+	private void onStepMove(StepMoveEvent event) {
+		update(event.getAnyStep(), event.getStart(), event.getEnd());
+	}
+
+	private void onStepResize(StepResizeEvent event) {
+		update(event.getAnyStep(), event.getStart(), event.getEnd());
+	}
+
+	private void onDataChange(GanttDataChangeEvent event) {
+		for (GanttDataChangeEvent change : event.getChanges()) {
+			if (change.getDataEvent() == GanttDataChangeEvent.DataEvent.STEP_ADD
+					|| change.getDataEvent() == GanttDataChangeEvent.DataEvent.STEP_REMOVE) {
+				recalculate();
+				return;
+			}
+		}
+	}
+
+	private static long toEpochSecond(LocalDateTime dateTime) {
+		return dateTime.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	private static LocalDateTime toDateTime(long epochSecond) {
+		return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+	}
+
+	private static Step toStep(GanttStep anyStep) {
+		return anyStep instanceof SubStep subStep ? subStep.getOwner() : (Step) anyStep;
+	}
+}
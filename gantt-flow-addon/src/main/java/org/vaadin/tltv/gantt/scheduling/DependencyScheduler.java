@@ -0,0 +1,200 @@
+package org.vaadin.tltv.gantt.scheduling;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.event.GanttDataChangeEvent;
+import org.vaadin.tltv.gantt.event.StepMoveEvent;
+import org.vaadin.tltv.gantt.event.StepResizeEvent;
+import org.vaadin.tltv.gantt.model.GanttStep;
+import org.vaadin.tltv.gantt.model.Step;
+import org.vaadin.tltv.gantt.model.SubStep;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Keeps finish-to-start dependencies of the {@link Gantt} steps defined by
+ * {@link Step#getPredecessor()}. When a step is moved or resized, steps
+ * depending on it directly or transitively are pushed forward so that each of
+ * them starts no earlier than its predecessor ends. Durations are kept and
+ * steps are never pulled backwards. Only the downstream steps of the changed
+ * step are visited, in topological order, and only the shifted steps are
+ * refreshed.
+ * <p>
+ * Dependencies are indexed when the scheduler is created and kept up to date on
+ * added and removed steps. Call {@link #updateDependency(Step)} after changing
+ * predecessor of an existing step. Dependencies are kept by UID, so steps
+ * replaced with {@link Gantt#setSteps(Collection)} keep their dependencies.
+ * Resized steps take the dates of the {@link StepResizeEvent}.
+ */
+public class DependencyScheduler implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Gantt gantt;
+	private final Map<String, Set<String>> successorUidsByUid = new HashMap<>();
+	private final Map<String, String> predecessorUidByUid = new HashMap<>();
+	private final List<Registration> registrations = new ArrayList<>();
+
+	/**
+	 * Creates a scheduler for the given Gantt and starts listening to step move,
+	 * resize and data change events.
+	 *
+	 * @param gantt Target Gantt, not null
+	 */
+	public DependencyScheduler(Gantt gantt) {
+		this.gantt = Objects.requireNonNull(gantt);
+		gantt.getSteps().forEach(this::updateDependency);
+		registrations.add(gantt.addStepMoveListener(this::onStepMove));
+		registrations.add(gantt.addStepResizeListener(this::onStepResize));
+		registrations.add(gantt.addDataChangeListener(this::onDataChange));
+	}
+
+	/**
+	 * Stops listening to the Gantt events.
+	 */
+	public void remove() {
+		registrations.forEach(Registration::remove);
+		registrations.clear();
+	}
+
+	/**
+	 * Updates the dependency index for the current predecessor of the given step.
+	 */
+	public void updateDependency(Step step) {
+		removeDependency(step);
+		var predecessor = step.getPredecessor();
+		if (predecessor != null) {
+			predecessorUidByUid.put(step.getUid(), predecessor.getUid());
+			successorUidsByUid.computeIfAbsent(predecessor.getUid(), uid -> new LinkedHashSet<>()).add(step.getUid());
+		}
+	}
+
+	/**
+	 * Returns steps that have the given step as their predecessor.
+	 */
+	public Collection<Step> getSuccessors(Step step) {
+		return successorUidsByUid.getOrDefault(step.getUid(), Set.of()).stream().map(gantt::getStep)
+				.filter(Objects::nonNull).toList();
+	}
+
+	/**
+	 * Pushes steps depending on the given step forward where they start before
+	 * their predecessor ends, and refreshes the shifted steps.
+	 *
+	 * @param step Changed step
+	 * @return Shifted steps in topological order
+	 */
+	public List<Step> reschedule(Step step) {
+		List<Step> shifted = new ArrayList<>();
+		Set<String> visited = new HashSet<>();
+		visited.add(step.getUid());
+		var queue = new ArrayDeque<Step>();
+		queue.add(step);
+		while (!queue.isEmpty()) {
+			var predecessor = queue.poll();
+			for (String successorUid : successorUidsByUid.getOrDefault(predecessor.getUid(), Set.of())) {
+				// each step has a single predecessor, so a breadth first walk is topological
+				if (!visited.add(successorUid)) {
+					continue;
+				}
+				var successor = gantt.getStep(successorUid);
+				if (successor == null || !shift(successor, predecessor)) {
+					continue;
+				}
+				shifted.add(successor);
+				queue.add(successor);
+			}
+		}
+		shifted.forEach(s -> gantt.refresh(s.getUid()));
+		return shifted;
+	}
+
+	private boolean shift(Step successor, Step predecessor) {
+		if (predecessor.getEndDate() == null || successor.getStartDate() == null
+				|| !successor.getStartDate().isBefore(predecessor.getEndDate())) {
+			return false;
+		}
+		var delta = Duration.between(successor.getStartDate(), predecessor.getEndDate());
+		successor.setStartDate(successor.getStartDate().plus(delta));
+		if (successor.getEndDate() != null) {
+			successor.setEndDate(successor.getEndDate().plus(delta));
+		}
+		gantt.getSubStepElements(successor.getUid()).forEach(subStepElement -> {
+			var subStep = subStepElement.getModel();
+			if (subStep.getStartDate() != null) {
+				subStep.setStartDate(subStep.getStartDate().plus(delta));
+			}
+			if (subStep.getEndDate() != null) {
+				subStep.setEndDate(subStep.getEndDate().plus(delta));
+			}
+			gantt.refresh(subStep.getUid());
+		});
+		return true;
+	}
+
+	private void removeDependency(Step step) {
+		var predecessorUid = predecessorUidByUid.remove(step.getUid());
+		if (predecessorUid != null) {
+			var successorUids = successorUidsByUid.get(predecessorUid);
+			if (successorUids != null) {
+				successorUids.remove(step.getUid());
+				if (successorUids.isEmpty()) {
+					successorUidsByUid.remove(predecessorUid);
+				}
+			}
+		}
+	}
+
+	private void onStepMove(StepMoveEvent event) {
+		reschedule(toStep(event.getAnyStep()));
+	}
+
+	private void onStepResize(StepResizeEvent event) {
+		var anyStep = event.getAnyStep();
+		anyStep.setStartDate(event.getStart());
+		anyStep.setEndDate(event.getEnd());
+		if (anyStep instanceof SubStep subStep) {
+			subStep.updateOwnerDatesBySubStep();
+			gantt.refresh(subStep.getOwner().getUid());
+		}
+		gantt.refresh(anyStep.getUid());
+		reschedule(toStep(anyStep));
+	}
+
+	private void onDataChange(GanttDataChangeEvent event) {
+		for (GanttDataChangeEvent change : event.getChanges()) {
+			switch (change.getDataEvent()) {
+				case STEP_ADD:
+					change.getSteps().forEach(this::updateDependency);
+					break;
+				case STEP_REMOVE:
+					change.getSteps().forEach(step -> {
+						removeDependency(step);
+						var successorUids = successorUidsByUid.remove(step.getUid());
+						if (successorUids != null) {
+							successorUids.forEach(predecessorUidByUid::remove);
+						}
+					});
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private static Step toStep(GanttStep anyStep) {
+		return anyStep instanceof SubStep subStep ? subStep.getOwner() : (Step) anyStep;
+	}
+}
@@ -0,0 +1,362 @@
+package org.vaadin.tltv.gantt.scheduling;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import org.vaadin.tltv.gantt.Gantt;
+import org.vaadin.tltv.gantt.event.GanttDataChangeEvent;
+import org.vaadin.tltv.gantt.event.StepMoveEvent;
+import org.vaadin.tltv.gantt.event.StepResizeEvent;
+import org.vaadin.tltv.gantt.model.GanttStep;
+import org.vaadin.tltv.gantt.model.Step;
+import org.vaadin.tltv.gantt.model.SubStep;
+
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Packs tasks that don't overlap each other into shared rows of a
+ * {@link Gantt}. Each row, a lane, is a {@link Step} and the tasks are its
+ * {@link SubStep}s, so the number of rows is the maximum number of tasks
+ * overlapping at the same time instead of the number of tasks. Lanes are
+ * assigned with greedy interval partitioning in <code>O(n log n)</code> time,
+ * which uses the minimum number of lanes.
+ * <p>
+ * When a task is moved or resized, only that task is placed again: to the lane
+ * it was dropped on if it fits there, otherwise to the first lane it fits in or
+ * to a new lane. A lane is removed when its last task leaves. Tasks are
+ * checked only against their neighbours in the lane. Remove packed tasks with
+ * {@link #removeTask(SubStep)} to keep the lanes up to date.
+ */
+public class LanePacker implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// serializable, as lanes keep it in their sorted sets
+	private static final Comparator<Slot> SLOT_ORDER = (Comparator<Slot> & Serializable) (first, second) -> {
+		int result = first.start().compareTo(second.start());
+		return result != 0 ? result : first.uid().compareTo(second.uid());
+	};
+
+	/**
+	 * Time range of a task in a lane.
+	 */
+	private record Slot(LocalDateTime start, LocalDateTime end, String uid) implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static class Lane implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Step step;
+		private final TreeSet<Slot> slots = new TreeSet<>(SLOT_ORDER);
+
+		private Lane(Step step) {
+			this.step = step;
+		}
+
+		private LocalDateTime getEnd() {
+			return slots.isEmpty() ? LocalDateTime.MIN : slots.last().end();
+		}
+
+		/**
+		 * Returns true if the given slot doesn't overlap its neighbours. Slots of a
+		 * lane don't overlap each other, so the neighbours are enough.
+		 */
+		private boolean fits(Slot slot) {
+			var lower = slots.lower(slot);
+			var higher = slots.higher(slot);
+			return (lower == null || !lower.end().isAfter(slot.start()))
+					&& (higher == null || !higher.start().isBefore(slot.end()));
+		}
+	}
+
+	private final Gantt gantt;
+	private final SerializableFunction<Integer, Step> laneFactory;
+	private final List<Lane> lanes = new ArrayList<>();
+	private final Map<String, Lane> lanesByStepUid = new HashMap<>();
+	private final Map<String, Lane> lanesByTaskUid = new HashMap<>();
+	private final Map<String, Slot> slotsByTaskUid = new HashMap<>();
+	private final List<Registration> registrations = new ArrayList<>();
+
+	/**
+	 * Creates a packer for the given Gantt with lanes that are not movable or
+	 * resizable.
+	 *
+	 * @param gantt Target Gantt, not null
+	 */
+	public LanePacker(Gantt gantt) {
+		this(gantt, index -> {
+			var lane = new Step();
+			lane.setCaption("");
+			lane.setMovable(false);
+			lane.setResizable(false);
+			return lane;
+		});
+	}
+
+	/**
+	 * Creates a packer for the given Gantt.
+	 *
+	 * @param gantt       Target Gantt, not null
+	 * @param laneFactory Creates a new lane step for the given zero based lane
+	 *                    number, not null
+	 */
+	public LanePacker(Gantt gantt, SerializableFunction<Integer, Step> laneFactory) {
+		this.gantt = Objects.requireNonNull(gantt);
+		this.laneFactory = Objects.requireNonNull(laneFactory);
+		registrations.add(gantt.addStepMoveListener(this::onStepMove));
+		registrations.add(gantt.addStepResizeListener(this::onStepResize));
+		registrations.add(gantt.addDataChangeListener(this::onDataChange));
+	}
+
+	/**
+	 * Stops listening to the Gantt events. Lanes are left as they are.
+	 */
+	public void remove() {
+		registrations.forEach(Registration::remove);
+		registrations.clear();
+	}
+
+	/**
+	 * Replaces lanes of this packer with new lanes of the given tasks and appends
+	 * them to the Gantt. Tasks are added as {@link SubStep}s of the lanes with
+	 * the UID, identifier, dates and visible fields of the given task. Given
+	 * tasks are not added to the Gantt.
+	 *
+	 * @param tasks Tasks with start and end dates
+	 * @return Lane steps in the row order
+	 */
+	public List<Step> pack(Collection<? extends GanttStep> tasks) {
+		clear();
+		var sortedTasks = new ArrayList<GanttStep>(tasks);
+		for (GanttStep task : sortedTasks) {
+			Objects.requireNonNull(task.getStartDate(), "Task start date is required");
+			Objects.requireNonNull(task.getEndDate(), "Task end date is required");
+		}
+		sortedTasks.sort(Comparator.comparing(GanttStep::getStartDate).thenComparing(GanttStep::getEndDate));
+
+		// lane that ends first is reused if the next task starts after it
+		var lanesByEnd = new PriorityQueue<Lane>(Comparator.comparing(Lane::getEnd));
+		var subSteps = new ArrayList<SubStep>(sortedTasks.size());
+		for (GanttStep task : sortedTasks) {
+			var lane = lanesByEnd.peek();
+			if (lane != null && !lane.getEnd().isAfter(task.getStartDate())) {
+				lanesByEnd.poll();
+			} else {
+				lane = newLane();
+			}
+			var subStep = toSubStep(task, lane.step);
+			addSlot(lane, subStep);
+			subSteps.add(subStep);
+			lanesByEnd.add(lane);
+		}
+		lanes.forEach(this::updateLaneDates);
+		gantt.addSteps(lanes.stream().map(lane -> lane.step));
+		subSteps.forEach(gantt::addSubStep);
+		return getLanes();
+	}
+
+	/**
+	 * Removes lanes of this packer and their tasks from the Gantt.
+	 */
+	public void clear() {
+		var laneSteps = getLanes();
+		lanes.clear();
+		lanesByStepUid.clear();
+		lanesByTaskUid.clear();
+		slotsByTaskUid.clear();
+		gantt.removeSteps(laneSteps);
+	}
+
+	/**
+	 * Returns lane steps of this packer.
+	 */
+	public List<Step> getLanes() {
+		return lanes.stream().map(lane -> lane.step).toList();
+	}
+
+	/**
+	 * Returns lane of the given packed task or null if it's not packed by this
+	 * packer.
+	 */
+	public Step getLane(GanttStep task) {
+		var lane = lanesByTaskUid.get(task.getUid());
+		return lane != null ? lane.step : null;
+	}
+
+	/**
+	 * Places the given packed task again by its current dates, for example after
+	 * changing its dates on the server side.
+	 */
+	public void repack(SubStep task) {
+		var lane = lanesByTaskUid.get(task.getUid());
+		if (lane != null) {
+			place(task, lane);
+		}
+	}
+
+	/**
+	 * Removes the given packed task from the Gantt and its lane. Removes the lane
+	 * if it becomes empty.
+	 */
+	public void removeTask(SubStep task) {
+		var lane = lanesByTaskUid.get(task.getUid());
+		if (lane == null) {
+			return;
+		}
+		removeSlot(lane, task.getUid());
+		gantt.removeAnyStep(task);
+		updateOrRemoveLane(lane);
+	}
+
+	/**
+	 * Moves the given task to the preferred lane if it fits there, otherwise to
+	 * the first lane it fits in or to a new lane.
+	 */
+	private void place(SubStep task, Lane preferred) {
+		var previous = lanesByTaskUid.get(task.getUid());
+		removeSlot(previous, task.getUid());
+		var slot = new Slot(task.getStartDate(), task.getEndDate(), task.getUid());
+		var lane = preferred != null && preferred.fits(slot) ? preferred : null;
+		for (int i = 0; lane == null && i < lanes.size(); i++) {
+			if (lanes.get(i).fits(slot)) {
+				lane = lanes.get(i);
+			}
+		}
+		if (lane == null) {
+			lane = newLane();
+			lane.step.setStartDate(task.getStartDate());
+			lane.step.setEndDate(task.getEndDate());
+			gantt.addStep(lane.step);
+		}
+		addSlot(lane, task);
+		if (task.getOwner() != lane.step) {
+			gantt.moveSubStep(gantt.indexOf(lane.step), task);
+		}
+		gantt.refresh(task.getUid());
+		updateOrRemoveLane(lane);
+		if (previous != lane) {
+			updateOrRemoveLane(previous);
+		}
+	}
+
+	private Lane newLane() {
+		var lane = new Lane(Objects.requireNonNull(laneFactory.apply(lanes.size()), "Lane factory returned null"));
+		lanes.add(lane);
+		lane.step.setUid(ensureUid(lane.step));
+		lanesByStepUid.put(lane.step.getUid(), lane);
+		return lane;
+	}
+
+	/**
+	 * Returns UID of the given step or a new UID if it doesn't have one. Lanes
+	 * and tasks are indexed by UID before they are added to the Gantt.
+	 */
+	private String ensureUid(GanttStep step) {
+		return step.getUid() == null || step.getUid().isEmpty() ? gantt.getUidGenerator().nextUid() : step.getUid();
+	}
+
+	private void addSlot(Lane lane, SubStep task) {
+		var slot = new Slot(task.getStartDate(), task.getEndDate(), task.getUid());
+		lane.slots.add(slot);
+		slotsByTaskUid.put(task.getUid(), slot);
+		lanesByTaskUid.put(task.getUid(), lane);
+	}
+
+	private void removeSlot(Lane lane, String taskUid) {
+		var slot = slotsByTaskUid.remove(taskUid);
+		lanesByTaskUid.remove(taskUid);
+		if (lane != null && slot != null) {
+			lane.slots.remove(slot);
+		}
+	}
+
+	private void updateOrRemoveLane(Lane lane) {
+		if (lane == null || !lanesByStepUid.containsKey(lane.step.getUid())) {
+			return;
+		}
+		if (lane.slots.isEmpty()) {
+			lanes.remove(lane);
+			lanesByStepUid.remove(lane.step.getUid());
+			gantt.removeStep(lane.step);
+			return;
+		}
+		updateLaneDates(lane);
+		gantt.refresh(lane.step.getUid());
+	}
+
+	/**
+	 * Sets lane dates to cover its tasks. Tasks of a lane don't overlap, so the
+	 * last task ends last.
+	 */
+	private void updateLaneDates(Lane lane) {
+		lane.step.setStartDate(lane.slots.first().start());
+		lane.step.setEndDate(lane.slots.last().end());
+	}
+
+	private SubStep toSubStep(GanttStep task, Step lane) {
+		var subStep = new SubStep(lane);
+		subStep.setUid(ensureUid(task));
+		subStep.setIdentifier(task.getIdentifier());
+		subStep.setCaption(task.getCaption());
+		subStep.setCaptionMode(task.getCaptionMode());
+		subStep.setDescription(task.getDescription());
+		subStep.setStyleName(task.getStyleName());
+		subStep.setBackgroundColor(task.getBackgroundColor());
+		subStep.setProgress(task.getProgress());
+		subStep.setShowProgress(task.isShowProgress());
+		subStep.setMovable(task.isMovable());
+		subStep.setResizable(task.isResizable());
+		subStep.setStartDate(task.getStartDate());
+		subStep.setEndDate(task.getEndDate());
+		return subStep;
+	}
+
+	private void onStepMove(StepMoveEvent event) {
+		if (event.getAnyStep() instanceof SubStep task && lanesByTaskUid.containsKey(task.getUid())) {
+			// dropped on another lane is preferred, otherwise the task stays in its lane
+			var preferred = lanesByStepUid.get(task.getOwner().getUid());
+			place(task, preferred != null ? preferred : lanesByTaskUid.get(task.getUid()));
+		}
+	}
+
+	private void onStepResize(StepResizeEvent event) {
+		if (event.getAnyStep() instanceof SubStep task && lanesByTaskUid.containsKey(task.getUid())) {
+			task.setStartDate(event.getStart());
+			task.setEndDate(event.getEnd());
+			place(task, lanesByTaskUid.get(task.getUid()));
+		}
+	}
+
+	private void onDataChange(GanttDataChangeEvent event) {
+		for (GanttDataChangeEvent change : event.getChanges()) {
+			if (change.getDataEvent() != GanttDataChangeEvent.DataEvent.STEP_REMOVE) {
+				continue;
+			}
+			for (Step step : change.getStepsList()) {
+				var lane = lanesByStepUid.remove(step.getUid());
+				if (lane != null) {
+					// lane removed outside of this packer, forget its tasks
+					lanes.remove(lane);
+					lane.slots.forEach(slot -> {
+						slotsByTaskUid.remove(slot.uid());
+						lanesByTaskUid.remove(slot.uid());
+					});
+					lane.slots.clear();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package org.vaadin.tltv.gantt.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Fixed width codec for the <code>yyyy-MM-dd'T'HH:mm:ss</code>,
+ * <code>yyyy-MM-dd'T'HH</code> and <code>yyyy-MM-dd</code> formats used
+ * between the server and the client side. Writes digits directly into a char
+ * buffer and parses digits directly into {@link LocalDateTime} fields without
+ * intermediate {@link java.time.temporal.TemporalAccessor} instances. Supports
+ * years from 1 to 9999 and rejects field values that are out of range for the
+ * date, like day 30 of February or hour 24. {@link GanttUtil} falls back to
+ * {@link java.time.format.DateTimeFormatter} for those.
+ * <p>
+ * The <code>format</code> methods write into a buffer that is kept per thread
+ * and reused between calls, so they allocate only the returned
+ * {@link String}. Use {@link #write(char[], int, LocalDateTime, int)} to write
+ * into a buffer of the caller without allocating.
+ */
+public final class DateTimeCodec {
+
+	/** Length of <code>yyyy-MM-dd</code>. */
+	public static final int DATE_LENGTH = 10;
+	/** Length of <code>yyyy-MM-dd'T'HH</code>. */
+	public static final int DATE_HOUR_LENGTH = 13;
+	/** Length of <code>yyyy-MM-dd'T'HH:mm:ss</code>. */
+	public static final int DATE_TIME_LENGTH = 19;
+
+	private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[DATE_TIME_LENGTH]);
+
+	private DateTimeCodec() {
+	}
+
+	/**
+	 * Returns true if the given year can be written by this codec.
+	 */
+	public static boolean isSupportedYear(int year) {
+		return year >= 1 && year <= 9999;
+	}
+
+	/**
+	 * Format given datetime to yyyy-MM-ddTHH:mm:ss.
+	 */
+	public static String formatDateTime(LocalDateTime dateTime) {
+		return format(dateTime, DATE_TIME_LENGTH);
+	}
+
+	/**
+	 * Format given datetime to yyyy-MM-ddTHH.
+	 */
+	public static String formatDateHour(LocalDateTime dateTime) {
+		return format(dateTime, DATE_HOUR_LENGTH);
+	}
+
+	/**
+	 * Format given date to yyyy-MM-dd.
+	 */
+	public static String formatDate(LocalDate date) {
+		var buffer = BUFFER.get();
+		writeDate(buffer, 0, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+		return new String(buffer, 0, DATE_LENGTH);
+	}
+
+	private static String format(LocalDateTime dateTime, int length) {
+		var buffer = BUFFER.get();
+		write(buffer, 0, dateTime, length);
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Writes given datetime into the buffer starting from the offset. Length
+	 * selects the format and is one of {@link #DATE_LENGTH},
+	 * {@link #DATE_HOUR_LENGTH} or {@link #DATE_TIME_LENGTH}.
+	 *
+	 * @param buffer   Target buffer with at least <code>length</code> chars after
+	 *                 the offset
+	 * @param offset   Start offset in the buffer
+	 * @param dateTime Written datetime with a supported year
+	 * @param length   Format length
+	 * @return Offset after the written chars
+	 */
+	public static int write(char[] buffer, int offset, LocalDateTime dateTime, int length) {
+		if (length != DATE_LENGTH && length != DATE_HOUR_LENGTH && length != DATE_TIME_LENGTH) {
+			throw new IllegalArgumentException("Unsupported length " + length);
+		}
+		offset = writeDate(buffer, offset, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+		if (length > DATE_LENGTH) {
+			buffer[offset++] = 'T';
+			offset = write2(buffer, offset, dateTime.getHour());
+		}
+		if (length > DATE_HOUR_LENGTH) {
+			buffer[offset++] = ':';
+			offset = write2(buffer, offset, dateTime.getMinute());
+			buffer[offset++] = ':';
+			offset = write2(buffer, offset, dateTime.getSecond());
+		}
+		return offset;
+	}
+
+	private static int writeDate(char[] buffer, int offset, int year, int month, int day) {
+		if (!isSupportedYear(year)) {
+			throw new IllegalArgumentException("Unsupported year " + year);
+		}
+		offset = write2(buffer, offset, year / 100);
+		offset = write2(buffer, offset, year % 100);
+		buffer[offset++] = '-';
+		offset = write2(buffer, offset, month);
+		buffer[offset++] = '-';
+		return write2(buffer, offset, day);
+	}
+
+	private static int write2(char[] buffer, int offset, int value) {
+		buffer[offset] = (char) ('0' + value / 10);
+		buffer[offset + 1] = (char) ('0' + value % 10);
+		return offset + 2;
+	}
+
+	/**
+	 * Parses yyyy-MM-ddTHH:mm:ss text.
+	 *
+	 * @throws DateTimeParseException if the text doesn't match the format
+	 */
+	public static LocalDateTime parseDateTime(CharSequence text) {
+		checkLength(text, DATE_TIME_LENGTH);
+		return parse(text, DATE_TIME_LENGTH);
+	}
+
+	/**
+	 * Parses yyyy-MM-ddTHH text.
+	 *
+	 * @throws DateTimeParseException if the text doesn't match the format
+	 */
+	public static LocalDateTime parseDateHour(CharSequence text) {
+		checkLength(text, DATE_HOUR_LENGTH);
+		return parse(text, DATE_HOUR_LENGTH);
+	}
+
+	/**
+	 * Parses yyyy-MM-dd text.
+	 *
+	 * @throws DateTimeParseException if the text doesn't match the format
+	 */
+	public static LocalDate parseDate(CharSequence text) {
+		checkLength(text, DATE_LENGTH);
+		return parse(text, DATE_LENGTH).toLocalDate();
+	}
+
+	/**
+	 * Parses the first <code>length</code> chars of the text. Length selects the
+	 * format and is one of {@link #DATE_LENGTH}, {@link #DATE_HOUR_LENGTH} or
+	 * {@link #DATE_TIME_LENGTH}. Missing time fields are zero.
+	 *
+	 * @throws DateTimeParseException if the text doesn't match the format
+	 */
+	public static LocalDateTime parse(CharSequence text, int length) {
+		if (text.length() < length) {
+			throw new DateTimeParseException("Text '" + text + "' is too short", text, text.length());
+		}
+		int year = read2(text, 0) * 100 + read2(text, 2);
+		expect(text, 4, '-');
+		int month = read2(text, 5);
+		expect(text, 7, '-');
+		int day = read2(text, 8);
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		if (length > DATE_LENGTH) {
+			expect(text, 10, 'T');
+			hour = read2(text, 11);
+		}
+		if (length > DATE_HOUR_LENGTH) {
+			expect(text, 13, ':');
+			minute = read2(text, 14);
+			expect(text, 16, ':');
+			second = read2(text, 17);
+		}
+		if (!isSupportedYear(year)) {
+			throw new DateTimeParseException("Text '" + text + "' has unsupported year", text, 0);
+		}
+		try {
+			return LocalDateTime.of(year, month, day, hour, minute, second);
+		} catch (DateTimeException e) {
+			throw new DateTimeParseException("Text '" + text + "' could not be parsed: " + e.getMessage(), text, 0, e);
+		}
+	}
+
+	private static void checkLength(CharSequence text, int length) {
+		if (text.length() != length) {
+			throw new DateTimeParseException("Text '" + text + "' could not be parsed, expected length " + length,
+					text, Math.min(text.length(), length));
+		}
+	}
+
+	private static void expect(CharSequence text, int index, char c) {
+		if (text.charAt(index) != c) {
+			throw new DateTimeParseException("Text '" + text + "' could not be parsed at index " + index, text,
+					index);
+		}
+	}
+
+	private static int read2(CharSequence text, int index) {
+		return digit(text, index) * 10 + digit(text, index + 1);
+	}
+
+	private static int digit(CharSequence text, int index) {
+		int value = text.charAt(index) - '0';
+		if (value < 0 || value > 9) {
+			throw new DateTimeParseException("Text '" + text + "' could not be parsed at index " + index, text,
+					index);
+		}
+		return value;
+	}
+}
@@ -1,5 +1,7 @@
 package org.vaadin.tltv.gantt.util;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -24,10 +26,20 @@ public class GanttUtil {
 	 * @return Formatted datetime
 	 */
 	public static String formatDateTime(TemporalAccessor temporal) {
+		if (temporal instanceof LocalDateTime dateTime && DateTimeCodec.isSupportedYear(dateTime.getYear())) {
+			return DateTimeCodec.formatDateTime(dateTime);
+		}
 		return dateTimeFormatter.format(temporal);
 	}
 
 	public static TemporalAccessor parseDateTime(CharSequence text) {
+		if (text.length() == DateTimeCodec.DATE_TIME_LENGTH) {
+			try {
+				return DateTimeCodec.parseDateTime(text);
+			} catch (DateTimeException e) {
+				// formatter resolves out of range day-of-month and hour 24 like before
+			}
+		}
 		return dateTimeFormatter.parse(text);
 	}
 	
@@ -38,18 +50,41 @@ public class GanttUtil {
 	 * @return Formatted date
 	 */
 	public static String formatDate(TemporalAccessor temporal) {
+		if (temporal instanceof LocalDateTime dateTime && DateTimeCodec.isSupportedYear(dateTime.getYear())) {
+			return DateTimeCodec.formatDate(dateTime.toLocalDate());
+		}
+		if (temporal instanceof LocalDate date && DateTimeCodec.isSupportedYear(date.getYear())) {
+			return DateTimeCodec.formatDate(date);
+		}
 		return dateFormatter.format(temporal);
 	}
 
 	public static TemporalAccessor parseDate(CharSequence text) {
+		if (text.length() == DateTimeCodec.DATE_LENGTH) {
+			try {
+				return DateTimeCodec.parseDate(text);
+			} catch (DateTimeException e) {
+				// formatter resolves out of range day-of-month and hour 24 like before
+			}
+		}
 		return dateFormatter.parse(text);
 	}
 	
 	public static String formatDateHour(TemporalAccessor temporal) {
+		if (temporal instanceof LocalDateTime dateTime && DateTimeCodec.isSupportedYear(dateTime.getYear())) {
+			return DateTimeCodec.formatDateHour(dateTime);
+		}
 		return dateHourFormatter.format(temporal);
 	}
 
 	public static TemporalAccessor parseDateHour(CharSequence text) {
+		if (text.length() == DateTimeCodec.DATE_HOUR_LENGTH) {
+			try {
+				return DateTimeCodec.parseDateHour(text);
+			} catch (DateTimeException e) {
+				// formatter resolves out of range day-of-month and hour 24 like before
+			}
+		}
 		return dateHourFormatter.parse(text);
 	}
 	
@@ -62,7 +97,46 @@ public class GanttUtil {
 		return parseDate(text);
 	}
 	
+	/**
+	 * Format given datetime to the shortest of yyyy-MM-dd, yyyy-MM-ddTHH and
+	 * yyyy-MM-ddTHH:mm:ss that represents it exactly. Nanoseconds are ignored.
+	 * 
+	 * @param dateTime Target datetime
+	 * @return Formatted datetime
+	 */
+	public static String formatCompactDateTime(LocalDateTime dateTime) {
+		if (dateTime.getMinute() != 0 || dateTime.getSecond() != 0) {
+			return formatDateTime(dateTime);
+		}
+		if (dateTime.getHour() != 0) {
+			return formatDateHour(dateTime);
+		}
+		return formatDate(dateTime);
+	}
+
+	/**
+	 * Parse datetime from yyyy-MM-ddTHH:mm:ss text with optional trailing
+	 * characters, or from compact yyyy-MM-ddTHH or yyyy-MM-dd text. Values the
+	 * fixed width codec rejects, like day 30 of February or hour 24, are resolved
+	 * with {@link DateTimeFormatter} smart resolving.
+	 * 
+	 * @param text Target text
+	 * @return Parsed {@link LocalDateTime}
+	 */
 	public static LocalDateTime parseLocalDateTime(CharSequence text) {
+		if (text.length() >= DateTimeCodec.DATE_TIME_LENGTH) {
+			try {
+				return DateTimeCodec.parse(text, DateTimeCodec.DATE_TIME_LENGTH);
+			} catch (DateTimeException e) {
+				return LocalDateTime.from(dateTimeFormatter.parse(text.subSequence(0, 19)));
+			}
+		}
+		if (text.length() == DateTimeCodec.DATE_HOUR_LENGTH) {
+			return LocalDateTime.from(parseDateHour(text));
+		}
+		if (text.length() == DateTimeCodec.DATE_LENGTH) {
+			return LocalDate.from(parseDate(text)).atStartOfDay();
+		}
 		return LocalDateTime.from(parseDateTime(text.subSequence(0, 19)));
 	}
 
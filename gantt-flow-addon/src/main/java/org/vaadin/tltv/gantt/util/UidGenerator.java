@@ -0,0 +1,53 @@
+package org.vaadin.tltv.gantt.util;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.vaadin.tltv.gantt.Gantt;
+
+/**
+ * Strategy for generating UIDs for steps that don't have one when they are
+ * added to {@link Gantt}. See {@link Gantt#setUidGenerator(UidGenerator)}.
+ */
+@FunctionalInterface
+public interface UidGenerator extends Serializable {
+
+	/**
+	 * Returns a new UID. UIDs must be unique within a Gantt.
+	 */
+	String nextUid();
+
+	/**
+	 * Returns a generator of random 64-bit base-62 UIDs, up to 11 characters
+	 * long. Uses {@link ThreadLocalRandom}, so there is no contention between
+	 * threads. Not suitable where UIDs must be unpredictable.
+	 */
+	static UidGenerator randomBase62() {
+		return () -> toBase62(ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Returns a generator of sequential base-62 UIDs starting from the given
+	 * value. Each returned generator has its own sequence.
+	 */
+	static UidGenerator sequentialBase62(long start) {
+		var sequence = new AtomicLong(start);
+		return () -> toBase62(sequence.getAndIncrement());
+	}
+
+	/**
+	 * Encodes given value as unsigned base-62 text with digits, upper case and
+	 * lower case letters.
+	 */
+	static String toBase62(long value) {
+		final String digits = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+		var chars = new char[11];
+		int position = chars.length;
+		do {
+			chars[--position] = digits.charAt((int) Long.remainderUnsigned(value, 62));
+			value = Long.divideUnsigned(value, 62);
+		} while (value != 0);
+		return new String(chars, position, chars.length - position);
+	}
+}
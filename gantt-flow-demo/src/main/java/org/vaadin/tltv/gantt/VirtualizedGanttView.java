@@ -0,0 +1,117 @@
+package org.vaadin.tltv.gantt;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.vaadin.tltv.gantt.model.Resolution;
+import org.vaadin.tltv.gantt.model.Step;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Virtualized Gantt with a large plan. "Scroll to middle" scrolls the chart to
+ * the middle row and, once the server has shown the rows of the new visible
+ * range, checks in the browser that the shown step elements are drawn at the
+ * height of their row index and that the first row in the viewport is the
+ * expected one.
+ */
+@Route("virtualized")
+public class VirtualizedGanttView extends VerticalLayout {
+
+	private static final int ROW_COUNT = 10_000;
+
+	private final Gantt gantt;
+	private final Span checkResult = new Span();
+	private boolean checkPending;
+
+	public VirtualizedGanttView() {
+		setSizeFull();
+
+		gantt = new Gantt();
+		gantt.setResolution(Resolution.Day);
+		gantt.setStartDate(LocalDate.of(2020, 1, 1));
+		gantt.setEndDateTime(LocalDateTime.of(2020, 12, 31, 23, 59, 59));
+		gantt.setLocale(UI.getCurrent().getLocale());
+		gantt.setWidthFull();
+		gantt.setHeight("600px");
+		gantt.setVirtualized(true);
+		gantt.addSteps(createSteps());
+		gantt.addVisibleRangeChangeListener(event -> {
+			if (checkPending) {
+				checkPending = false;
+				// runs after the rows of this range are shown in the same response
+				checkRenderedRows();
+			}
+		});
+
+		var scrollToMiddle = new Button("Scroll to middle", event -> {
+			checkPending = true;
+			checkResult.setText("Checking...");
+			gantt.getElement().executeJs("""
+					const step = this.querySelector(':scope > gantt-step-element:not([hidden])');
+					const rowHeight = (step && step.offsetHeight) || 30;
+					this._container.scrollTop = $0 * rowHeight;""", ROW_COUNT / 2);
+		});
+		var toolbar = new HorizontalLayout(scrollToMiddle, checkResult);
+		toolbar.setAlignItems(Alignment.BASELINE);
+		add(toolbar, gantt);
+	}
+
+	private static List<Step> createSteps() {
+		List<Step> steps = new ArrayList<>(ROW_COUNT);
+		var start = LocalDateTime.of(2020, 1, 1, 0, 0);
+		for (int i = 0; i < ROW_COUNT; i++) {
+			Step step = new Step();
+			step.setCaption("Row " + i);
+			step.setStartDate(start.plusDays(i % 300));
+			step.setEndDate(start.plusDays(i % 300 + 5));
+			steps.add(step);
+		}
+		return steps;
+	}
+
+	private void checkRenderedRows() {
+		gantt.getElement().executeJs("""
+				const steps = Array.from(this.querySelectorAll(':scope > gantt-step-element'));
+				const shown = steps.filter(step => !step.hidden);
+				return Promise.all(shown.map(step => step.updateComplete)).then(() => {
+					if (shown.length === 0) {
+						return 'FAILED: no rows shown';
+					}
+					const rowHeight = shown[0].offsetHeight;
+					const container = this._container;
+					const viewport = container.getBoundingClientRect();
+					const firstIndex = steps.indexOf(shown[0]);
+					const firstTop = shown[0].getBoundingClientRect().top;
+					const errors = [];
+					let firstInViewport = -1;
+					for (const step of shown) {
+						const index = steps.indexOf(step);
+						const rect = step.getBoundingClientRect();
+						if (Math.abs(rect.top - firstTop - (index - firstIndex) * rowHeight) > 1) {
+							errors.push('row ' + index + ' at ' + (rect.top - firstTop) + 'px');
+						}
+						if (rect.height !== rowHeight) {
+							errors.push('row ' + index + ' height ' + rect.height + 'px');
+						}
+						if (firstInViewport < 0 && rect.bottom > viewport.top) {
+							firstInViewport = index;
+						}
+					}
+					const expectedFirst = Math.floor(container.scrollTop / rowHeight);
+					if (Math.abs(firstInViewport - expectedFirst) > 1) {
+						errors.push('first row in viewport ' + firstInViewport + ', expected ' + expectedFirst);
+					}
+					const range = 'rows ' + firstIndex + '-' + steps.indexOf(shown[shown.length - 1]);
+					return errors.length === 0 ? 'OK: ' + range + ', ' + rowHeight + 'px each'
+							: 'FAILED: ' + range + ': ' + errors.slice(0, 5).join(', ');
+				});""").then(String.class, checkResult::setText);
+	}
+}